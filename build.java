@@ -97,6 +97,9 @@ public final class build {
         public String jvmExe     = new File(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java").getAbsolutePath();
         public String entryClass = "Main";
         public String[] jvmLine  = new String[] {jvmExe, "-ea", "-Xms2048m", "-Xmx2048m", "-XX:+AlwaysPreTouch", "-XX:+UseG1GC", "-cp", outDir, entryClass};
+
+        public String checkClass  = "FrameAllocationCheck";
+        public String[] checkLine = new String[] {jvmExe, "-ea", "-Djava.awt.headless=true", "-XX:+UseG1GC", "-cp", outDir, checkClass};
     }
 
     @Invokeable
@@ -113,6 +116,17 @@ public final class build {
         runShellCommand(".", (line) -> { System.out.print(line); }, buildOptions.jvmLine);
     }
 
+    @Invokeable
+    public static void check() {
+        build();
+
+        final boolean success = runShellCommand(".", (line) -> { System.out.print(line); }, buildOptions.checkLine);
+        if (!success) {
+            System.out.println("Check failed");
+            System.exit(1);
+        }
+    }
+
     @Invokeable
     public static void build() {
         final String[] sources = getAllFiles(buildOptions.srcDir, ".java");
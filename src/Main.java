@@ -9,6 +9,10 @@ import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
@@ -85,47 +89,76 @@ public final class Main {
             final Display display = new Display(slideshowFile.getName());
             final SlideShowFileParser parser = new SlideShowFileParser(slideshowFile);
 
+            final long begin = System.nanoTime() / 1000000;
+            SlideShowFileParser.SlideShowRec initialSlideshow = null;
+            SlideShowFileParser.ParseException initialError  = null;
             try {
-                final SlideShowFileParser.SlideShowMetaDataRec metaData = parser.parseMetaData();
-                display.initAndShow(metaData.hz(), metaData.aspectRatio());
+                // @NOTE only the very first load goes through the compiled slideshow; reloads are incremental anyway
+                initialSlideshow = parser.parse(null, new SlideShowCache(slideshowFile));
             } catch (final SlideShowFileParser.ParseException ex) {
-                javax.swing.JOptionPane.showMessageDialog(null, ex.getMessage(), "Error parsing metadata", javax.swing.JOptionPane.ERROR_MESSAGE);
+                initialError = ex;
+            }
+
+            final SlideShowFileParser.SlideShowMetaDataRec metaData = parser.getMetaData();
+            if (metaData == null) { // @NOTE we did not even get past the metadata, so there is nothing we could display
+                javax.swing.JOptionPane.showMessageDialog(null, initialError.getMessage(), "Error parsing metadata", javax.swing.JOptionPane.ERROR_MESSAGE);
                 System.exit(1);
             }
+            display.initAndShow(metaData.hz(), metaData.aspectRatio());
 
+            // @NOTE The slideshow on display stays alive underneath the message. A typo is made and fixed all the time
+            // while editing; the next good save only rebuilds the slides that have changed since, and the old slides
+            // are destroyed by the display once the new ones are on screen.
             final Lambdas.Unary<Void, SlideShowFileParser.ParseException> handleParseErrorLambda = (ex) -> {
                 logger.log(Level.SEVERE, ex.getMessage(), ex);
-                display.destroyAllSlides();
                 display.showMessage(ex.getMessage());
                 AudioUtils.beep(); // @NOTE draw attention to in case it is behind the editor
                 return (Void) null;
             };
 
-            try {
-                final long begin = System.nanoTime() / 1000000;
-                final Slide[] initialSlideshow   = parser.parseSlides();
+            if (initialSlideshow != null) {
+                display.newSlideShow(initialSlideshow.slides());
                 display.clearMessage();
-                display.newSlideShow(initialSlideshow);
                 final long delta = (System.nanoTime() / 1000000) - begin;
                 logger.log(Level.INFO, String.format("Slideshow loading took %s milliseconds", delta));
-            } catch (final SlideShowFileParser.ParseException ex) {
-                handleParseErrorLambda.call(ex);
+            } else {
+                handleParseErrorLambda.call(initialError);
             }
 
+            // @NOTE the last slideshow which has been parsed without errors; null if there has not been one yet
+            final AtomicReference<SlideShowFileParser.SlideShowRec> current = new AtomicReference<>(initialSlideshow);
+
             final FileModWatcher watcher = new FileModWatcher(Path.of(slideshowFile.getAbsolutePath()), () -> {
                 try {
-                    final Slide[] slideshow = parser.parseSlides();
-                    display.clearMessage();
-                    display.newSlideShow(slideshow);
+                    final long reloadBegin = System.nanoTime() / 1000000;
+                    final SlideShowFileParser.SlideShowRec slideshow = parser.parse(current.get());
+                    display.newSlideShow(slideshow.slides());
+                    display.clearMessage(); // @NOTE after, so an error stays up until the fixed slideshow is ready
+                    current.set(slideshow);
+                    final long delta = (System.nanoTime() / 1000000) - reloadBegin;
+                    logger.log(Level.INFO, String.format("Slideshow reloading took %s milliseconds", delta));
+                    return assetsOf(slideshow);
                 } catch (final SlideShowFileParser.ParseException ex) {
                     handleParseErrorLambda.call(ex);
+                    return null; // @NOTE keep watching what the last good slideshow used
                 }
+            }, (asset) -> {
+                display.reloadAsset(asset);
                 return (Void) null;
             });
-            watcher.start();
+            watcher.start(initialSlideshow != null ? assetsOf(initialSlideshow) : List.of());
         });
     }
 
+    // @NOTE every image and audio file the slideshow reads, so the watcher can reload them when they change
+    private static Set<Path> assetsOf(final SlideShowFileParser.SlideShowRec slideshow) {
+        final Set<Path> assets = new HashSet<>();
+        for (final Slide slide : slideshow.slides()) {
+            slide.collectAssets(assets);
+        }
+        return assets;
+    }
+
     public static void main(final String[] args) {
         logger.log(Level.INFO, "Entered main()");
 
@@ -140,6 +173,9 @@ public final class Main {
 
         initUncaughtExceptionHandler();
 
+        // @NOTE index the installed fonts in the background while the user picks a file
+        FontRegistry.warmUp();
+
         // @NOTE Let's try to collect some garbage we have made so far
         Runtime.getRuntime().gc();
         Runtime.getRuntime().runFinalization();
@@ -1,4 +1,3 @@
-import java.awt.BasicStroke;
 import java.awt.BorderLayout;
 import java.awt.Canvas;
 import java.awt.Color;
@@ -6,7 +5,6 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Frame;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
@@ -30,10 +28,26 @@ import java.awt.image.BufferedImage;
 import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import javax.swing.SwingUtilities;
 
@@ -44,20 +58,72 @@ public final class Display {
     private Frame frame;
     private Panel mainPanel;
     private Canvas canvas;
-    private BufferStrategy backBuffers;
+    private volatile BufferStrategy backBuffers; // @NOTE recreated on the EDT while the render thread waits for it
     private HashMap<RenderingHints.Key, Object> renderingHints;
+    private RenderingHints.Key[] renderingHintKeys; // @NOTE the same hints, set one by one each frame so that nothing has to iterate the map
+    private Object[] renderingHintValues;
 
     private final String title;
 
-    private volatile Slide[] slideshow; // @NOTE can be changed from outside thread, hence it MUST be stored in main memory at all times
-    private volatile int slideIndex = 0;
+    // @NOTE Immutable snapshot of the slideshow on display: its slides, which of them is shown and whether that one has
+    // been entered yet. A new slideshow gets a new epoch. Slides and index are only ever published together through
+    // 'deck', so no thread can see an index that belongs to a different slideshow.
+    private static final record DeckRec(long epoch, Slide[] slides, int index, boolean entered) {
+        public Slide current() {
+            return slides[index];
+        }
+    }
+
+    private final AtomicReference<DeckRec> deck;
+
+    // @NOTE Decks that have been replaced by a new slideshow. Their slides are destroyed by the render thread, but only
+    // once it has moved on to a newer epoch, so a frame can never draw a slide that is being destroyed.
+    private final ConcurrentLinkedQueue<DeckRec> retiredDecks = new ConcurrentLinkedQueue<>();
+
+    // @NOTE Everything that changes what is on display from outside (new slideshows, messages) runs through here one
+    // after the other, so it happens in the order it has been asked for even though preparing a slideshow takes a while.
+    private final ExecutorService updates = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "slideshow_update_thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger pendingSlideShows = new AtomicInteger(0);
+
+    // @NOTE Exporting renders every slide again (and waits for its images to be decoded), which takes a while. It runs
+    // here so the presentation keeps going; the render thread only shows how far it has come.
+    private final ExecutorService exports = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "slideshow_export_thread");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1); // @NOTE never get in the way of the main loop
+        return thread;
+    });
+    private volatile String exportStatus = null; // @NOTE shown in the bottom left corner; null while not exporting
+
+    private static final long PREPARE_TIMEOUT_MILLIS = 2000; // @NOTE after that the slideshow shows up anyways and its slides fill in once decoded
+
+    // @NOTE the deck the current frame is drawn from; only touched by the render thread
+    private DeckRec frameDeck;
+    private long renderedEpoch = -1;
 
     private MousePointer mousePointer;
-    private boolean isMousePointerActive = false;
-    private float mousePointerSize = 16;
+    private volatile boolean isMousePointerActive = false;
+    private volatile float mousePointerSize = 16;
+    private volatile Point mousePosition    = null; // @NOTE tracked on the EDT, null while outside of the canvas
+
+    // @NOTE Everything that touches the slides (switching, replacing and destroying them) is handed over to the render
+    // thread through here. That way the slides are only ever used by one thread and the other threads never have to
+    // wait for a frame to finish.
+    private final ConcurrentLinkedQueue<Runnable> renderActions = new ConcurrentLinkedQueue<>();
 
-    private boolean doResize    = false;
-    private boolean firstResize = true; // @NOTE used to indicate that we are resizing for the first time of current slideshow.
+    // @NOTE size of the canvas as laid out on the EDT; published for the render thread
+    private volatile int canvasWidth  = 0;
+    private volatile int canvasHeight = 0;
+
+    private final SlideResizer slideResizer = new SlideResizer();
+    private Slide[] prefetchedSlideshow = null; // @NOTE what the neighbours have last been resized for
+    private int prefetchedIndex         = -1;
+    private int prefetchedWidth         = 0;
+    private int prefetchedHeight        = 0;
 
     private float currentAspectRatio = 0;
     private float targetAspectRatio = 0;
@@ -74,12 +140,35 @@ public final class Display {
     private volatile boolean msg      = false;
     private volatile String message   = "";
 
+    private static final int MAX_MESSAGE_LINES = 24; // @NOTE any more and the font gets too small to be read from the back of the room
+
+    private static final Color MESSAGE_BACKGROUND = new Color(50, 0, 0);
+
+    // @NOTE everything the debug overlay needs, so that drawing it does not allocate
+    private final Font debugFont                       = FontRegistry.getFont("Consolas", Font.PLAIN, 14);
+    private final StringBuilder debugText              = new StringBuilder(128);
+    private final StringBuilder debugNumber            = new StringBuilder(32);
+    private final char[] debugChars                    = new char[128];
+    private final GarbageCollectorMXBean[] gcBeans     = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]); // @NOTE the collectors are fixed once the VM is up; an array so that iterating does not allocate
+    private final CompilationMXBean jitBean            = ManagementFactory.getCompilationMXBean();
+    private final ThreadMXBean threadBean              = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean osBean         = ManagementFactory.getOperatingSystemMXBean();
+
+    // @NOTE The message as last laid out by the render thread. A message stays on screen for many frames, so it is only
+    // split and fitted again once the message or the canvas size changes.
+    private String layoutMessage      = null;
+    private String[] messageLines     = new String[0];
+    private Font messageFont          = null;
+    private int messageLayoutWidth    = 0;
+    private int messageLayoutHeight   = 0;
+
     public Display(final String title) {
         assert EventQueue.isDispatchThread();
         assert title != null;
 
         this.title = title;
-        this.slideshow = new Slide[] { new Slide("DEFAULT", new Slide.Argb(), null) };
+        this.deck      = new AtomicReference<>(new DeckRec(0, new Slide[] { new Slide("DEFAULT", new Slide.Argb(), null) }, 0, false));
+        this.frameDeck = deck.get();
     }
 
     public void initAndShow(final int hz, final float targetAspectRatio) {
@@ -97,6 +186,7 @@ public final class Display {
             final CustomMouseAdapter mouseHandler = new CustomMouseAdapter();
             canvas.addMouseWheelListener(mouseHandler);
             canvas.addMouseListener(mouseHandler);
+            canvas.addMouseMotionListener(mouseHandler);
 
             mainPanel = new Panel();
             mainPanel.setBackground(Color.BLACK);
@@ -111,7 +201,9 @@ public final class Display {
             mainPanel.addMouseWheelListener(mouseHandler);
             mainPanel.addMouseListener(mouseHandler);
             frame.addWindowListener(new CustomWindowAdapter());
-            frame.addComponentListener(new CustomComponentAdapter());
+            final CustomComponentAdapter componentHandler = new CustomComponentAdapter();
+            frame.addComponentListener(componentHandler);
+            mainPanel.addComponentListener(componentHandler); // @NOTE the panel is what we lay the canvas out in
             final Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
             frame.setSize(screenSize.width / 2, screenSize.height / 2);
             frame.setLocationRelativeTo(null);
@@ -121,44 +213,88 @@ public final class Display {
 
             canvas.requestFocus();
             createGraphics();
+            layoutCanvas();
         }
 
-        rendering_hints: {
-            renderingHints = new HashMap<>();
-            renderingHints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            renderingHints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-            renderingHints.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-            renderingHints.put(RenderingHints.KEY_DITHERING, RenderingHints.VALUE_DITHER_DISABLE);
-            renderingHints.put(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-            renderingHints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-            renderingHints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            renderingHints.put(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
-            renderingHints.put(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        }
+        createRenderingHints();
 
         main_loop: {
             mainLoop = new MainLoop(hz);
             final Thread thread = new Thread(mainLoop);
-            thread.setName("main_loop_thread");
+            thread.setName("render_thread");
             thread.setPriority(Thread.MAX_PRIORITY);
             thread.setDaemon(true);
+            mainLoop.thread = thread;
             thread.start();
         }
     }
 
+    // @NOTE For FrameAllocationCheck: sets up everything a frame needs except for the window, with everything that can
+    // be drawn on top of a slide (the extended debug overlay and the mouse pointer) switched on. The calling thread takes
+    // the place of the render thread and draws frames with renderHeadlessFrame().
+    void initHeadless(final int hz, final int width, final int height) {
+        createRenderingHints();
+
+        mainLoop        = new MainLoop(hz);
+        mainLoop.thread = Thread.currentThread();
+
+        mousePointer         = new MousePointer();
+        isMousePointerActive = true;
+        mousePosition        = new Point(width / 2, height / 2);
+        debugLevel           = DebugLevel.EXTENDED;
+
+        canvasWidth  = width;
+        canvasHeight = height;
+    }
+
+    private void createRenderingHints() {
+        renderingHints = new HashMap<>();
+        renderingHints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        renderingHints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+        renderingHints.put(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+        renderingHints.put(RenderingHints.KEY_DITHERING, RenderingHints.VALUE_DITHER_DISABLE);
+        renderingHints.put(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        renderingHints.put(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        renderingHints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        renderingHints.put(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        renderingHints.put(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        renderingHintKeys   = renderingHints.keySet().toArray(new RenderingHints.Key[0]);
+        renderingHintValues = new Object[renderingHintKeys.length];
+        for (int i = 0; i < renderingHintKeys.length; ++i) {
+            renderingHintValues[i] = renderingHints.get(renderingHintKeys[i]);
+        }
+    }
+
     private final class CustomWindowAdapter extends WindowAdapter {
 
         @Override
         public void windowClosing(final WindowEvent evt) {
             System.exit(0);
         }
+
+        // @NOTE the back buffers might have lost their contents while the window was hidden
+        @Override
+        public void windowDeiconified(final WindowEvent evt) {
+            requestFrame();
+        }
+
+        @Override
+        public void windowActivated(final WindowEvent evt) {
+            requestFrame();
+        }
     }
 
     private final class CustomComponentAdapter extends ComponentAdapter {
 
         @Override
         public void componentResized(final ComponentEvent evt) {
-            doResize = true;
+            layoutCanvas();
+        }
+
+        @Override
+        public void componentShown(final ComponentEvent evt) {
+            requestFrame();
         }
     }
 
@@ -167,16 +303,40 @@ public final class Display {
         @Override
         public void mousePressed(final MouseEvent evt) {
             if (SwingUtilities.isLeftMouseButton(evt)) {
-                nextSlide();
+                runOnRenderThread(Display.this::nextSlide);
                 return;
             }
 
             if (SwingUtilities.isRightMouseButton(evt)) {
-                prevSlide();
+                runOnRenderThread(Display.this::prevSlide);
                 return;
             }
         }
 
+        @Override
+        public void mouseMoved(final MouseEvent evt) {
+            mousePosition = evt.getPoint();
+            if (isMousePointerActive) {
+                requestFrame();
+            }
+        }
+
+        @Override
+        public void mouseDragged(final MouseEvent evt) {
+            mousePosition = evt.getPoint();
+            if (isMousePointerActive) {
+                requestFrame();
+            }
+        }
+
+        @Override
+        public void mouseExited(final MouseEvent evt) {
+            mousePosition = null;
+            if (isMousePointerActive) {
+                requestFrame(); // @NOTE hide the pointer
+            }
+        }
+
         @Override
         public void mouseWheelMoved(final MouseWheelEvent evt) {
             final float inc = 4; // @TODO: Should be based on canvas size
@@ -189,6 +349,7 @@ public final class Display {
                     mousePointerSize -= inc;
                 }
             }
+            requestFrame();
             // @NOTE in case we will ever have other components who need to do something (e.g scrollpanes)
             // canvas.getParent().dispatchEvent(evt);
         }
@@ -217,69 +378,246 @@ public final class Display {
         backBuffers = canvas.getBufferStrategy();
     }
 
-    public void destroyAllSlides() {
-        for (final Slide slide : this.slideshow) {
-            slide.destroy();
+    // @NOTE Slides which are part of both the old and the new slideshow (same instance) are kept alive, so they neither
+    // have to be resized again nor lose their audio. Only the slides which are gone are destroyed.
+    // Can be called from any thread. The slides around the one that is going to be shown are prepared in the background
+    // first (images decoded, laid out for the current canvas), then the whole slideshow is swapped in at once, so the
+    // render thread never has to wait for any of that.
+    public void newSlideShow(final Slide[] slideshow) {
+        assert slideshow != null && slideshow.length > 0;
+
+        pendingSlideShows.incrementAndGet();
+        updates.execute(() -> {
+            if (pendingSlideShows.decrementAndGet() == 0) { // @NOTE not worth it if an even newer one is already waiting
+                prepareSlideShow(slideshow);
+            }
+            publishSlideShow(slideshow);
+        });
+    }
+
+    private void prepareSlideShow(final Slide[] slideshow) {
+        final long begin = System.nanoTime() / 1000000;
+
+        // @NOTE The index might still change until the slideshow is published; the neighbours are prepared as well.
+        final int index = indexIn(slideshow, deck.get());
+        final int from  = Math.max(0, index - slideResizer.range());
+        final int to    = Math.min(slideshow.length - 1, index + slideResizer.range());
+
+        final CompletableFuture<?>[] pending = new CompletableFuture<?>[to - from + 1];
+        for (int i = from; i <= to; ++i) {
+            pending[i - from] = slideshow[i].whenReady();
+            slideshow[i].prefetchAudio(); // @NOTE not waited for; the audio starts whenever it is ready
+        }
+        try {
+            CompletableFuture.allOf(pending).get(PREPARE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException ex) {
+            // @NOTE an image which failed to decode is as ready as it will ever be
+        } catch (final TimeoutException ex) {
+            Main.logger.log(Level.INFO, "Showing the slideshow before all of its images have been decoded");
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
         }
 
-        Runtime.getRuntime().gc();
-        Runtime.getRuntime().runFinalization();
+        slideResizer.layout(slideshow, index);
+
+        final long delta = (System.nanoTime() / 1000000) - begin;
+        Main.logger.log(Level.INFO, String.format("Prepared slideshow in %s milliseconds", delta));
     }
 
-    public void newSlideShow(final Slide[] slideshow) {
-        assert slideshow != null;
+    private void publishSlideShow(final Slide[] slideshow) {
+        final DeckRec old = deck.getAndUpdate((current) -> {
+            final int index = indexIn(slideshow, current);
+            final boolean entered = current.entered() && slideshow[index] == current.current();
+            return new DeckRec(current.epoch() + 1, slideshow, index, entered);
+        });
+        retiredDecks.add(old);
+        requestFrame();
+    }
 
-        destroyAllSlides();
+    // @NOTE stay on the same slide if it still exists, otherwise stay at the same position
+    private static int indexIn(final Slide[] slideshow, final DeckRec current) {
+        for (int i = 0; i < slideshow.length; ++i) {
+            if (slideshow[i] == current.current()) {
+                return i;
+            }
+        }
+        return Math.max(0, Math.min(current.index(), slideshow.length - 1));
+    }
 
-        // @TODO
-        //
-        // Hmm, why does that work? I feel like I should get problems some times where I index a slide inside the render()
-        // function which is not available anymore since this call can happens during accessing the slide.
-        //
-        this.slideshow = slideshow;
+    // @NOTE Called by the render thread at the start of every frame. Picks up the newest deck and destroys the slides
+    // of every deck it replaced which are not part of it anymore.
+    private void acknowledgeDeck() {
+        assert isRenderThread();
+
+        frameDeck = deck.get();
+        if (frameDeck.epoch() != renderedEpoch) {
+            renderedEpoch = frameDeck.epoch();
+
+            final Set<Slide> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+            kept.addAll(Arrays.asList(frameDeck.slides()));
+            final Iterator<DeckRec> it = retiredDecks.iterator();
+            while (it.hasNext()) {
+                final DeckRec retired = it.next();
+                if (retired.epoch() >= renderedEpoch) {
+                    continue; // @NOTE retired after we have read 'deck'; might be the very deck we are about to draw
+                }
+                it.remove();
+                for (final Slide slide : retired.slides()) {
+                    if (!kept.contains(slide)) {
+                        slide.destroy();
+                    }
+                }
+            }
+        }
 
-        firstResize = true;
-        doResize = true;
+        if (!frameDeck.entered()) {
+            final DeckRec entered = new DeckRec(frameDeck.epoch(), frameDeck.slides(), frameDeck.index(), true);
+            if (deck.compareAndSet(frameDeck, entered)) { // @NOTE otherwise a new slideshow came in; we enter that one next frame
+                frameDeck = entered;
+                frameDeck.current().onEnter();
+            }
+        }
     }
 
+    // @NOTE Called when a file the slideshow uses (an image or audio file) has changed on disk. Only the slides using
+    // it reload it, in the background, and swap it in once it is ready; nothing gets parsed or laid out again. Ordered
+    // with newSlideShow(), so a slideshow that is still being prepared gets the new version as well.
+    public void reloadAsset(final Path asset) {
+        assert asset != null;
+
+        updates.execute(() -> {
+            int count = 0;
+            for (final Slide slide : deck.get().slides()) {
+                final CompletableFuture<Void> reloaded = slide.reloadAsset(asset);
+                if (reloaded != null) {
+                    reloaded.whenComplete((result, ex) -> runOnRenderThread(slide::applyReloadedAssets));
+                    count += 1;
+                }
+            }
+            Main.logger.log(Level.INFO, String.format("Reloading '%s' on %s slides", asset, count));
+        });
+    }
+
+    // @NOTE Ordered with newSlideShow(), so a slideshow that is still being prepared can not hide a later message.
     public void showMessage(final String message) {
         assert message != null;
 
-        msg = true;
-        this.message = message;
+        updates.execute(() -> {
+            msg = true;
+            this.message = message;
+            requestFrame();
+        });
     }
 
+    // @NOTE Ordered with newSlideShow(), so calling this right after it keeps the message up until the new slideshow
+    // is actually on screen.
     public void clearMessage() {
-        msg = false;
+        updates.execute(() -> {
+            msg = false;
+            requestFrame();
+        });
     }
 
-    private void nextSlide() {
-        if (slideIndex < slideshow.length - 1) {
-            slideshow[slideIndex].onExit();
-            slideIndex += 1;
-            slideshow[slideIndex].onEnter();
+    // @NOTE Tells the main loop that something visible has changed. Safe to call from any thread.
+    public void requestFrame() {
+        if (mainLoop != null) {
+            mainLoop.requestFrame();
+        }
+    }
+
+    private void runOnRenderThread(final Runnable action) {
+        renderActions.add(action);
+        requestFrame();
+    }
+
+    private void runRenderActions() {
+        Runnable action;
+        while ((action = renderActions.poll()) != null) {
+            action.run();
+        }
+    }
+
+    private boolean isRenderThread() {
+        return mainLoop != null && Thread.currentThread() == mainLoop.thread;
+    }
+
+    // @NOTE The render thread must never touch the window itself. This blocks it (and hence rendering) until the EDT
+    // is done, which is exactly what we want when e.g. the back buffers get recreated. The export thread waits for its
+    // dialogs the same way.
+    private void runOnEdtAndWait(final Runnable action) {
+        assert !EventQueue.isDispatchThread();
+
+        try {
+            EventQueue.invokeAndWait(action);
+        } catch (final InvocationTargetException ex) {
+            final Throwable error = ex.getCause() != null ? ex.getCause() : ex;
+            if (error instanceof AssertionError aerror) {
+                Main.handleAssert(aerror);
+            }
+            Main.logger.log(Level.SEVERE, error.getMessage(), error);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // @NOTE true if the next frame would look different even though nothing has requested it
+    private boolean isAnimating() {
+        if (debugLevel != DebugLevel.NONE) { // @NOTE shows frame times and such which change all the time
+            return true;
         }
+        if (msg) {
+            return false;
+        }
+        final Slide slide = frameDeck.current();
+        return !slide.isReady() || slide.isAnimated(); // @NOTE still decoding images or playing gifs
+    }
+
+    private void nextSlide() {
+        switchToSlide(frameDeck.index() + 1);
     }
 
     private void prevSlide() {
-        if (slideIndex > 0) {
-            slideshow[slideIndex].onExit();
-            slideIndex -= 1;
-            slideshow[slideIndex].onEnter();
+        switchToSlide(frameDeck.index() - 1);
+    }
+
+    // @NOTE Only the render thread switches slides. If a new slideshow has been swapped in since the frame started, the
+    // switch is dropped; the key press was meant for a slideshow that is gone.
+    private void switchToSlide(final int index) {
+        assert isRenderThread();
+
+        final DeckRec current = frameDeck;
+        final int target = Math.max(0, Math.min(index, current.slides().length - 1));
+        if (target == current.index()) {
+            return;
+        }
+        final DeckRec next = new DeckRec(current.epoch(), current.slides(), target, true);
+        if (deck.compareAndSet(current, next)) {
+            frameDeck = next;
+            current.current().onExit();
+            next.current().onEnter();
         }
     }
 
-    // @TODO: Make this event based so that input does not suffer when framerate is low!
+    // @NOTE Handles every key press since the last frame in the order they happened, so nothing gets lost (or merged)
+    // when the frame rate is low.
     private void input() {
-        if (inputHandler.isKeyDown(KeyEvent.VK_RIGHT) || inputHandler.isKeyDown(KeyEvent.VK_SPACE) || inputHandler.isKeyDown(KeyEvent.VK_ENTER)) {
+        KeyEvent evt;
+        while ((evt = inputHandler.pollKeyPress()) != null) {
+            onKeyPress(evt.getKeyCode(), evt.isControlDown());
+        }
+    }
+
+    private void onKeyPress(final int code, final boolean control) {
+        if (code == KeyEvent.VK_RIGHT || code == KeyEvent.VK_SPACE || code == KeyEvent.VK_ENTER) {
             nextSlide();
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_LEFT) || inputHandler.isKeyDown(KeyEvent.VK_BACK_SPACE)) {
+        } else if (code == KeyEvent.VK_LEFT || code == KeyEvent.VK_BACK_SPACE) {
             prevSlide();
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_PAGE_UP)) {
-            slideIndex = slideshow.length - 1;
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_PAGE_DOWN)) {
-            slideIndex = 0;
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_F12)) {
+        } else if (code == KeyEvent.VK_PAGE_UP) {
+            switchToSlide(frameDeck.slides().length - 1);
+        } else if (code == KeyEvent.VK_PAGE_DOWN) {
+            switchToSlide(0);
+        } else if (code == KeyEvent.VK_F12) {
             // @NOTE With 'yield' we do not need either a break statement nor do we need a default case
             // since we get a compiler error when we do not cover all cases (only for enums of course).
             // Wow, an actual useful feature once in a while!
@@ -290,77 +628,109 @@ public final class Display {
                 case MINIMAL  : yield DebugLevel.EXTENDED;
                 case EXTENDED : yield DebugLevel.NONE;
             };
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_M)) {
+        } else if (code == KeyEvent.VK_M) {
             isMousePointerActive ^= true; // toggle boolean
-            if (!frame.isUndecorated()) { // @NOTE when we are in 'presentation mode' the cursor is already invisible
-                if (isMousePointerActive) {
-                    frame.setCursor(frame.getToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
-                } else {
-                    frame.setCursor(Cursor.getDefaultCursor());
+            final boolean hideCursor = isMousePointerActive;
+            EventQueue.invokeLater(() -> {
+                if (!frame.isUndecorated()) { // @NOTE when we are in 'presentation mode' the cursor is already invisible
+                    if (hideCursor) {
+                        frame.setCursor(frame.getToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
+                    } else {
+                        frame.setCursor(Cursor.getDefaultCursor());
+                    }
                 }
-            }
-        } else if (inputHandler.isKeyDown(KeyEvent.VK_P)) {
+            });
+        } else if (code == KeyEvent.VK_P) {
             // @NOTE presentation mode
             isMousePointerActive = false;
 
             debugLevel = DebugLevel.NONE;
 
-            final Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-            if (frame.isUndecorated()) {
-                // @NOTE windowed
-                frame.dispose();
-                frame.setUndecorated(false);
-                mainPanel.setSize(screenSize.width / 2, screenSize.height / 2); // @TODO: Clamp according to screen resolution
-                frame.pack();
-                frame.setLocationRelativeTo(null);
-                frame.setCursor(Cursor.getDefaultCursor());
-                frame.setVisible(true);
-
-                // @NOTE recreate backbuffers since we deallocated the frame (peer)
-                createGraphics();
-            } else {
-                // @NOTE fullscreen
-                frame.dispose();
-                frame.setUndecorated(true);
-                frame.setSize(screenSize.width, screenSize.height);
-                frame.setLocationRelativeTo(null);
-                frame.setCursor(frame.getToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
-                frame.setVisible(true);
-
-                // @NOTE recreate backbuffers since we deallocated the frame (peer)
-                createGraphics();
-            }
-        } else if (inputHandler.isKeyPressed(KeyEvent.VK_CONTROL) && inputHandler.isKeyDown(KeyEvent.VK_S)) {
+            runOnEdtAndWait(this::togglePresentationMode);
+        } else if (control && code == KeyEvent.VK_S) {
             Main.logger.log(Level.INFO, "Requested slideshow export.");
-            final int answer = javax.swing.JOptionPane.showConfirmDialog(frame, "Are you sure you wish to export your slideshow to disk?", "Export", javax.swing.JOptionPane.YES_NO_OPTION);
-            if (answer == javax.swing.JOptionPane.YES_OPTION) {
-                final boolean success = new SlideShowExporter(canvas, renderingHints, slideshow, "export").export();
-                if (success) {
-                    javax.swing.JOptionPane.showMessageDialog(frame, "Exporting slideshow was successful!", "Export success", javax.swing.JOptionPane.INFORMATION_MESSAGE);
-
-                    // @TODO: We might want the commented out code?
-                    /*try {
-                        java.awt.Desktop.getDesktop().open(new java.io.File("export/slideshow.html"));
-                    } catch (final java.io.IOException ex) {
-                        Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
-                    }*/
+            final Slide[] slideshow = frameDeck.slides();
+            final int width  = canvasWidth;
+            final int height = canvasHeight;
+            exports.execute(() -> exportSlideShow(slideshow, width, height));
+        }
+    }
 
-                } else {
-                    javax.swing.JOptionPane.showMessageDialog(frame, "Exporting slideshow has failed!", "Export failure", javax.swing.JOptionPane.ERROR_MESSAGE);
-                }
-            }
+    // @NOTE Runs on the export thread. The exporter lays out and renders copies of the slides, so the slides on display
+    // are never touched.
+    private void exportSlideShow(final Slide[] slideshow, final int width, final int height) {
+        final int[] answer = new int[1];
+        runOnEdtAndWait(() -> answer[0] = javax.swing.JOptionPane.showConfirmDialog(frame, "Are you sure you wish to export your slideshow to disk?", "Export", javax.swing.JOptionPane.YES_NO_OPTION));
+        if (answer[0] != javax.swing.JOptionPane.YES_OPTION) {
+            return;
+        }
 
+        final boolean success;
+        try {
+            success = new SlideShowExporter(width, height, renderingHints, slideshow, "export", (exported, total) -> {
+                setExportStatus(String.format("Exporting slideshow (%s/%s)", exported, total));
+                return (Void) null;
+            }).export();
+        } finally {
+            setExportStatus(null);
         }
 
-        inputHandler.update(); // @NOTE must be the last call inside this function!
+        if (success) {
+            runOnEdtAndWait(() -> javax.swing.JOptionPane.showMessageDialog(frame, "Exporting slideshow was successful!", "Export success", javax.swing.JOptionPane.INFORMATION_MESSAGE));
+
+            // @TODO: We might want the commented out code?
+            /*try {
+                java.awt.Desktop.getDesktop().open(new java.io.File("export/slideshow.html"));
+            } catch (final java.io.IOException ex) {
+                Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+            }*/
+
+        } else {
+            runOnEdtAndWait(() -> javax.swing.JOptionPane.showMessageDialog(frame, "Exporting slideshow has failed!", "Export failure", javax.swing.JOptionPane.ERROR_MESSAGE));
+        }
+    }
+
+    private void setExportStatus(final String status) {
+        exportStatus = status;
+        requestFrame();
+    }
+
+    private void togglePresentationMode() {
+        assert EventQueue.isDispatchThread();
+
+        final Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        if (frame.isUndecorated()) {
+            // @NOTE windowed
+            frame.dispose();
+            frame.setUndecorated(false);
+            mainPanel.setSize(screenSize.width / 2, screenSize.height / 2); // @TODO: Clamp according to screen resolution
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setCursor(Cursor.getDefaultCursor());
+            frame.setVisible(true);
+
+            // @NOTE recreate backbuffers since we deallocated the frame (peer)
+            createGraphics();
+        } else {
+            // @NOTE fullscreen
+            frame.dispose();
+            frame.setUndecorated(true);
+            frame.setSize(screenSize.width, screenSize.height);
+            frame.setLocationRelativeTo(null);
+            frame.setCursor(frame.getToolkit().createCustomCursor(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), new Point(), null));
+            frame.setVisible(true);
+
+            // @NOTE recreate backbuffers since we deallocated the frame (peer)
+            createGraphics();
+        }
     }
 
     private void update() {
         if (isMousePointerActive) {
-            mousePointer.update(canvas.getMousePosition(), mousePointerSize, mousePointerSize);
+            mousePointer.update(mousePosition, mousePointerSize, mousePointerSize);
         }
 
-        slideshow[slideIndex].update();
+        frameDeck.current().update();
     }
 
     private void render() {
@@ -369,47 +739,7 @@ public final class Display {
             // @NOTE render to offscreen buffer
             do {
                 final Graphics2D g = (Graphics2D) backBuffers.getDrawGraphics();
-                g.setRenderingHints(renderingHints);
-
-                // @NOTE clear
-                g.setColor(new Color(0, 0, 0));
-                g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-
-                // @NOTE check if we need to resize our slides
-                if (doResize) {
-                    Main.logger.log(Level.INFO, "Resized window");
-
-                    if (fill) {
-                        canvas.setBounds(0, 0, mainPanel.getWidth(), mainPanel.getHeight());
-                    } else {
-                        // @TODO: I think there are still issues when an aspect ratio where y (h) is greater than x (w) is passed
-                        calcAndApplyAspectRatio();
-                    }
-
-                    for (final Slide slide : slideshow) {
-                        // @TODO: This makes the startup very slow (the slower the more slides we have)
-                        slide.onResize(g, canvas.getWidth(), canvas.getHeight());
-                    }
-                    doResize = false;
-
-                    if (firstResize) {
-                        slideshow[slideIndex].onEnter();
-                        firstResize = false;
-                    }
-                }
-
-                if (!msg) {
-                    slideshow[slideIndex].render(g);
-                } else {
-                    renderMessage(g);
-                }
-
-                renderDebugInformation(g);
-
-                if (isMousePointerActive) {
-                    mousePointer.render(g);
-                }
-
+                renderFrame(g);
                 g.dispose();
             } while (backBuffers.contentsRestored());
 
@@ -425,6 +755,112 @@ public final class Display {
         } while (backBuffers.contentsLost());
     }
 
+    private void renderFrame(final Graphics2D g) {
+        for (int i = 0, l = renderingHintKeys.length; i < l; ++i) {
+            g.setRenderingHint(renderingHintKeys[i], renderingHintValues[i]);
+        }
+
+        // @NOTE clear
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, canvasWidth, canvasHeight);
+
+        if (!msg) {
+            resizeVisibleSlides(g); // @NOTE we might have switched to a slide which has not been laid out yet
+            frameDeck.current().render(g);
+        } else {
+            renderMessage(g);
+        }
+
+        renderDebugInformation(g);
+        renderExportStatus(g);
+
+        if (isMousePointerActive) {
+            mousePointer.render(g);
+        }
+    }
+
+    // @NOTE One frame of the main loop after initHeadless(), drawn into 'g' instead of the back buffers. There is no
+    // window, so there is no input either.
+    void renderHeadlessFrame(final Graphics2D g) {
+        assert isRenderThread();
+
+        acknowledgeDeck();
+        runRenderActions();
+        update();
+        renderFrame(g);
+        mainLoop.totalFramesRendered += 1;
+    }
+
+    // @NOTE Only the slide on display has to be laid out right away. Its neighbours are laid out in the background, so
+    // flipping to them is instant, and all the other slides stay stale until they get close to being shown. Cheap when
+    // nothing has changed since the last frame.
+    private void resizeVisibleSlides(final Graphics2D g) {
+        final Slide[] slideshow = frameDeck.slides();
+        final int index  = frameDeck.index();
+        final int width  = canvasWidth;
+        final int height = canvasHeight;
+
+        slideshow[index].ensureResized(g, width, height); // @NOTE e.g. unchanged slides after a reload already are
+
+        if (slideshow != prefetchedSlideshow || index != prefetchedIndex) {
+            for (int i = Math.max(0, index - slideResizer.range()), l = Math.min(slideshow.length - 1, index + slideResizer.range()); i <= l; ++i) {
+                slideshow[i].prefetchAudio(); // @NOTE never blocks; decoded audio is cached, so this is cheap for the ones we had
+            }
+            dropLayoutsOutOfRange(slideshow, index);
+        }
+        if (slideshow != prefetchedSlideshow || index != prefetchedIndex || width != prefetchedWidth || height != prefetchedHeight) {
+            if (width != prefetchedWidth || height != prefetchedHeight) {
+                Main.logger.log(Level.INFO, String.format("Resized window to %sx%s", width, height));
+            }
+            slideResizer.prefetch(g, slideshow, index, width, height);
+            prefetchedSlideshow = slideshow;
+            prefetchedIndex     = index;
+            prefetchedWidth     = width;
+            prefetchedHeight    = height;
+        }
+    }
+
+    // @NOTE The slides which were in range of the previous prefetch and are not anymore let go of their layout, so a
+    // walk through a large slideshow does not end up with every slide holding its scaled images.
+    private void dropLayoutsOutOfRange(final Slide[] slideshow, final int index) {
+        if (prefetchedSlideshow == null) {
+            return;
+        }
+        final int range = slideResizer.range();
+        for (int i = Math.max(0, prefetchedIndex - range), l = Math.min(prefetchedSlideshow.length - 1, prefetchedIndex + range); i <= l; ++i) {
+            final Slide slide = prefetchedSlideshow[i];
+            if (!isInRange(slideshow, index, range, slide)) {
+                slide.dropLayout();
+            }
+        }
+    }
+
+    private static boolean isInRange(final Slide[] slideshow, final int index, final int range, final Slide slide) {
+        for (int i = Math.max(0, index - range), l = Math.min(slideshow.length - 1, index + range); i <= l; ++i) {
+            if (slideshow[i] == slide) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // @NOTE Runs on the EDT whenever the window changes size. Only publishes the new size to the render thread which
+    // then resizes the slides on its next frame.
+    private void layoutCanvas() {
+        assert EventQueue.isDispatchThread();
+
+        if (fill) {
+            canvas.setBounds(0, 0, mainPanel.getWidth(), mainPanel.getHeight());
+        } else {
+            // @TODO: I think there are still issues when an aspect ratio where y (h) is greater than x (w) is passed
+            calcAndApplyAspectRatio();
+        }
+
+        canvasWidth  = canvas.getWidth();
+        canvasHeight = canvas.getHeight();
+        requestFrame();
+    }
+
     private void calcAndApplyAspectRatio() {
         float w = mainPanel.getWidth();
         float h = mainPanel.getHeight();
@@ -456,38 +892,25 @@ public final class Display {
     }
 
     private void renderMessage(final Graphics2D g) {
-        g.setColor(new Color(50, 0, 0));
-        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setColor(MESSAGE_BACKGROUND);
+        g.fillRect(0, 0, canvasWidth, canvasHeight);
 
-        // @TODO: Heavily copy pasted from Slide.Text
-        final float sizePercentage = 0.9f;
-        final float targetWidthPx = canvas.getWidth() * (sizePercentage * 100.0f) / 100.0f;
-        float fontSize = 0.0f;
-        final Font font = new Font("Consolas", Font.BOLD, (int) fontSize);
-        while (true) {
-            final FontMetrics metrics = g.getFontMetrics(font.deriveFont(fontSize));
-            float currentWidthPx = metrics.stringWidth(message);
-            if (message.split("\n").length == 0) {
-                currentWidthPx = metrics.stringWidth(message);
-            } else {
-                currentWidthPx = metrics.stringWidth(message.split("\n")[0]); // @NOTE only use the first line
-            }
-            assert currentWidthPx != -1;
-            if (currentWidthPx >= targetWidthPx) {
-                break;
-            }
-            fontSize += 0.20f;
+        final String message = this.message;
+        if (message != layoutMessage || canvasWidth != messageLayoutWidth || canvasHeight != messageLayoutHeight) {
+            layoutMessage(g, message);
         }
 
-        final FontMetrics metrics = g.getFontMetrics(font);
-        final float targetXPosPx = (canvas.getWidth()  * (0.5f * 100.0f) / 100.0f) - (targetWidthPx / 2);
-        final float targetYPosPx = (canvas.getHeight() * (0.5f * 100.0f) / 100.0f);// - (metrics.getHeight() / 2);
+        final String[] lines = messageLines;
+        final float sizePercentage = 0.9f;
+        final float targetWidthPx  = canvasWidth * (sizePercentage * 100.0f) / 100.0f;
 
-        g.setFont(font.deriveFont(fontSize));
+        g.setFont(messageFont);
         g.setColor(Color.WHITE);
 
-        final String[] lines = message.split("\n"); // @NOTE split by the actual line feed byte
         final int strHeight = g.getFontMetrics().getHeight();
+        final float targetXPosPx = (canvasWidth  * (0.5f * 100.0f) / 100.0f) - (targetWidthPx / 2);
+        final float targetYPosPx = (canvasHeight * (0.5f * 100.0f) / 100.0f) - (strHeight * (lines.length - 1) / 2.0f); // @NOTE center the whole block
+
         float y = targetYPosPx;
         for (int i = 0, l = lines.length; i < l; ++i) {
             final String line = lines[i];
@@ -500,33 +923,80 @@ public final class Display {
 
     }
 
+    private void layoutMessage(final Graphics2D g, final String message) {
+        // @NOTE A message can be a whole list (e.g. every error of a slideshow), so only show as many lines as can
+        // still be read and tell how many have been left out.
+        String[] lines = message.split("\n"); // @NOTE split by the actual line feed byte
+        if (lines.length > MAX_MESSAGE_LINES) {
+            final int hidden = lines.length - (MAX_MESSAGE_LINES - 1);
+            lines = Arrays.copyOf(lines, MAX_MESSAGE_LINES);
+            lines[MAX_MESSAGE_LINES - 1] = String.format("... and %s more", hidden);
+        }
+
+        // @TODO: Heavily copy pasted from Slide.Text
+        final float sizePercentage = 0.9f;
+        final float targetWidthPx  = canvasWidth  * (sizePercentage * 100.0f) / 100.0f;
+        final float targetHeightPx = canvasHeight * (sizePercentage * 100.0f) / 100.0f;
+        final float fontSize = FontFitter.fit(g, "Consolas", Font.BOLD, lines, targetWidthPx, targetHeightPx); // @NOTE the widest line has to fit, not just the first one
+
+        layoutMessage       = message;
+        messageLines        = lines;
+        messageFont         = FontRegistry.getFont("Consolas", Font.BOLD, fontSize);
+        messageLayoutWidth  = canvasWidth;
+        messageLayoutHeight = canvasHeight;
+    }
+
+    private void renderExportStatus(final Graphics2D g) {
+        final String status = exportStatus;
+        if (status == null) {
+            return;
+        }
+
+        g.setFont(debugFont);
+        final int width  = g.getFontMetrics().stringWidth(status);
+        final int height = g.getFontMetrics().getHeight();
+        g.setColor(MESSAGE_BACKGROUND);
+        g.fillRect(8, canvasHeight - height - 16, width + 16, height + 8);
+        g.setColor(Color.WHITE);
+        g.drawString(status, 16, canvasHeight - 16 - g.getFontMetrics().getDescent());
+    }
+
     private void renderDebugInformation(final Graphics2D g) {
         if (debugLevel == DebugLevel.NONE) {
             return;
         }
 
-        g.setFont(new Font("Consolas", Font.PLAIN, 14));
+        // @NOTE This is on screen for every single frame, so it must not allocate anything. Otherwise the GC numbers it
+        // shows would mostly be caused by showing them.
+        g.setFont(debugFont);
         g.setColor(Color.WHITE);
 
         if (debugLevel == DebugLevel.MINIMAL) {
-            g.drawString(String.format("Time: %.3f/%.3f ms (%s hz)", mainLoop.rawFrameTimeMillis, mainLoop.cookedFrameTimeMillis, mainLoop.hz), 16, 16);
-            g.drawString(String.format("Frames: %s", mainLoop.totalFramesRendered), 16, 32);
-            g.drawString(String.format("Render dimension: %s:%s", canvas.getWidth(), canvas.getHeight()), 16, 48);
-            g.drawString(String.format("Aspect ratio: %s", currentAspectRatio), 16, 64);
-            g.drawString(String.format("Current slide: %s/%s", (slideIndex + 1), slideshow.length), 16, 80);
+            debugText().append("Time: ").append(millis(mainLoop.rawFrameTimeMillis)).append('/').append(millis(mainLoop.cookedFrameTimeMillis)).append(" ms (").append(mainLoop.hz).append(" hz)");
+            drawDebugText(g, 16);
+            debugText().append("Frames: ").append(mainLoop.totalFramesRendered);
+            drawDebugText(g, 32);
+            debugText().append("Render dimension: ").append(canvasWidth).append(':').append(canvasHeight);
+            drawDebugText(g, 48);
+            debugText().append("Aspect ratio: ").append(currentAspectRatio);
+            drawDebugText(g, 64);
+            debugText().append("Current slide: ").append(frameDeck.index() + 1).append('/').append(frameDeck.slides().length).append(frameDeck.current().isReady() ? "" : " (decoding images)");
+            drawDebugText(g, 80);
             return;
         }
 
         if (debugLevel == DebugLevel.EXTENDED) {
-            g.drawString(String.format("Time: %.3f/%.3f ms (%s hz)", mainLoop.rawFrameTimeMillis, mainLoop.cookedFrameTimeMillis, mainLoop.hz), 16, 16);
-            g.drawString(String.format("Frames: %s", mainLoop.totalFramesRendered), 16, 32);
+            debugText().append("Time: ").append(millis(mainLoop.rawFrameTimeMillis)).append('/').append(millis(mainLoop.cookedFrameTimeMillis)).append(" ms (").append(mainLoop.hz).append(" hz)");
+            drawDebugText(g, 16);
+            debugText().append("Frames: ").append(mainLoop.totalFramesRendered);
+            drawDebugText(g, 32);
 
             // @NOTE this approach of calculating only works when we set the 'Xms' and 'Xmx' to the same value
             final long maxHeapMemoryMb  = Runtime.getRuntime().maxMemory()  / (long) Math.pow(1024, 2);
             final long usedHeapMemoryMb = maxHeapMemoryMb - (Runtime.getRuntime().freeMemory() / (long) Math.pow(1024, 2));
-            g.drawString(String.format("Memory: %s/%s mb", usedHeapMemoryMb, maxHeapMemoryMb), 16, 48);
+            debugText().append("Memory: ").append(usedHeapMemoryMb).append('/').append(maxHeapMemoryMb).append(" mb");
+            drawDebugText(g, 48);
 
-            final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans(); // can not cache this, since it can change during runtime
             long gcTotalTime = 0;
             long gcTotalCount = 0;
             for (final GarbageCollectorMXBean gcBean : gcBeans) {
@@ -538,34 +1008,72 @@ public final class Display {
                 gcTotalTime  += gcTime;
                 gcTotalCount += gcCount;
             }
-            final String gcStr = String.format("GC: %s/%s (ms/cnt)", gcTotalTime, gcTotalCount);
-            g.drawString(gcStr, 16, 64);
+            debugText().append("GC: ").append(gcTotalTime).append('/').append(gcTotalCount).append(" (ms/cnt)");
+            drawDebugText(g, 64);
 
-            final CompilationMXBean jitBean = ManagementFactory.getCompilationMXBean();
             if (jitBean.isCompilationTimeMonitoringSupported()) {
-                final String jitStr =  String.format("JIT: %s ms", jitBean.getTotalCompilationTime());
-                g.drawString(jitStr, 16, 80);
+                debugText().append("JIT: ").append(jitBean.getTotalCompilationTime()).append(" ms");
+                drawDebugText(g, 80);
             }
 
-            final int threadCount = Thread.getAllStackTraces().keySet().size();
-            g.drawString(String.format("Total threads: %s", threadCount), 16, 96);
+            debugText().append("Total threads: ").append(threadBean.getThreadCount()); // @NOTE used to snapshot the stack trace of every thread just to count them
+            drawDebugText(g, 96);
 
-            final int availableCores = Runtime.getRuntime().availableProcessors();
-            g.drawString(String.format("CPU cores: %s", availableCores), 16, 112);
+            debugText().append("CPU cores: ").append(Runtime.getRuntime().availableProcessors());
+            drawDebugText(g, 112);
 
-            final double usage = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
-            g.drawString(String.format("CPU usage avg: %s", usage), 16, 128);
+            debugText().append("CPU usage avg: ").append(osBean.getSystemLoadAverage());
+            drawDebugText(g, 128);
 
-            g.drawString(String.format("Render dimension: %s:%s", canvas.getWidth(), canvas.getHeight()), 16, 144);
-            g.drawString(String.format("Aspect ratio: %s", currentAspectRatio), 16, 160);
-            g.drawString(String.format("Current slide: %s/%s", (slideIndex + 1), slideshow.length), 16, 176);
+            debugText().append("Render dimension: ").append(canvasWidth).append(':').append(canvasHeight);
+            drawDebugText(g, 144);
+            debugText().append("Aspect ratio: ").append(currentAspectRatio);
+            drawDebugText(g, 160);
+            debugText().append("Current slide: ").append(frameDeck.index() + 1).append('/').append(frameDeck.slides().length).append(frameDeck.current().isReady() ? "" : " (decoding images)");
+            drawDebugText(g, 176);
         }
     }
 
+    private StringBuilder debugText() {
+        debugText.setLength(0);
+        return debugText;
+    }
+
+    // @NOTE %.3f without going through the formatter
+    private StringBuilder millis(final double millis) {
+        final long thousandths = Math.round(millis * 1000.0d);
+        debugNumber.setLength(0);
+        debugNumber.append(thousandths / 1000).append('.');
+        final long fraction = thousandths % 1000;
+        if (fraction < 100) debugNumber.append('0');
+        if (fraction < 10)  debugNumber.append('0');
+        return debugNumber.append(fraction);
+    }
+
+    private void drawDebugText(final Graphics2D g, final int y) {
+        final int length = Math.min(debugText.length(), debugChars.length);
+        debugText.getChars(0, length, debugChars, 0);
+        g.drawChars(debugChars, 0, length, 16, y);
+    }
+
     private final class MainLoop implements Runnable {
 
         public volatile boolean running = false;
 
+        public volatile Thread thread = null;
+
+        // @NOTE Set whenever something visible changes. Unless something on screen is animating, the loop does not
+        // produce any frames while this is false and just waits to be woken up by requestFrame().
+        private volatile boolean dirty    = true;
+        private volatile boolean animating = false;
+
+        // @NOTE Still render every now and then while idle; the back buffers can lose their contents (e.g. when the
+        // screen is locked) without us getting notified in every case.
+        private static final long IDLE_REFRESH_NANOS = 1000L * 1000L * 1000L;
+
+        // @NOTE -Dkagami.continuous_rendering=true brings back the old behaviour of rendering every single frame
+        private final boolean continuous = Boolean.getBoolean("kagami.continuous_rendering");
+
         public long totalFramesRendered     = 0;
         public double cookedFrameTimeMillis = 0;
         public double rawFrameTimeMillis    = 0;
@@ -586,49 +1094,37 @@ public final class Display {
             running = true;
 
             while (running) {
+                if (!continuous && !dirty && !animating) {
+                    LockSupport.parkNanos(this, IDLE_REFRESH_NANOS); // @NOTE returns early on requestFrame()
+                }
+                dirty = false; // @NOTE before the frame, so a request that comes in while rendering is not lost
+
                 double startTimeMillis = now();
                 try {
-                    EventQueue.invokeAndWait(() -> {
-                        input();
-                        update();
-                        render();
-                        totalFramesRendered += 1;
-                    });
-                } catch (final InvocationTargetException ex) {
-                    if (ex.getCause() != null) {
-                        final Throwable error = ex.getCause();
-                        if (error instanceof AssertionError aerror) {
-                            Main.handleAssert(aerror);
-                        } else {
-                            // @TODO: Display dialog to user?
-                            Main.logger.log(Level.SEVERE, error.getMessage(), error.toString());
-                        }
-                    } else {
-                        // @TODO: Display dialog to user?
-                        Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
-                    }
-                } catch (final InterruptedException ex) {
-                    assert false : "Not supposed to interrupt this thread!";
+                    // @NOTE We render actively from this thread; the EDT only ever sees input and window events
+                    // and neither has to wait for us nor are we slowed down by whatever it is doing.
+                    acknowledgeDeck();
+                    runRenderActions();
+                    input();
+                    update();
+                    render();
+                    totalFramesRendered += 1;
+                    animating = isAnimating();
+                } catch (final AssertionError aerror) {
+                    Main.handleAssert(aerror);
+                } catch (final RuntimeException ex) {
+                    // @TODO: Display dialog to user?
+                    Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
                 }
 
-                double workTimeMillis = now() - startTimeMillis;
+                final double workTimeMillis = now() - startTimeMillis;
                 rawFrameTimeMillis = workTimeMillis;
                 if (workTimeMillis < targetTimeMillis) {
                     assert !EventQueue.isDispatchThread() : "Must not sleep on UI thread!";
 
-                    // @NOTE We still have time, so we have to artifically wait to reach the target time
-                    // @TODO Maybe it is better (and more accurate) to sleep for OVERSLEEP_GUARD until we reached
-                    // 'waitTime - OVERSLEEP_GUARD < 0'?.
-                    final long waitTime = (long) (targetTimeMillis - workTimeMillis);
-                    if (waitTime - OVERSLEEP_GUARD > 0) {
-                        sleepMillis(waitTime - OVERSLEEP_GUARD);
-                    }
-
-                    // @NOTE Busy wait the rest of time
-                    while (workTimeMillis < targetTimeMillis) {
-                        workTimeMillis = now() - startTimeMillis;
-                    }
-
+                    // @NOTE We still have time, so we have to artifically wait to reach the target time. This is also
+                    // what caps the frame rate while e.g. the mouse pointer is moved around.
+                    waitUntil(startTimeMillis + targetTimeMillis);
                 } else {
                     // @NOTE We have missed our target time :(
                 }
@@ -637,6 +1133,30 @@ public final class Display {
             }
         }
 
+        public void requestFrame() {
+            dirty = true;
+            final Thread t = thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+            }
+        }
+
+        // @NOTE Parks for as long as the scheduler can be trusted to wake us up in time and only spins for the last
+        // OVERSLEEP_GUARD milliseconds, instead of burning a whole core for the rest of every frame.
+        private void waitUntil(final double deadlineMillis) {
+            while (true) {
+                final double remainingMillis = deadlineMillis - now();
+                if (remainingMillis <= 0) {
+                    return;
+                }
+                if (remainingMillis > OVERSLEEP_GUARD) {
+                    LockSupport.parkNanos((long) ((remainingMillis - OVERSLEEP_GUARD) * 1000000.0d));
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
         private void sleepMillis(final long millis) {
             assert millis > 0;
 
@@ -676,42 +1196,49 @@ public final class Display {
 
     public final class InputHandler extends KeyAdapter {
 
-        private final boolean[] keys = new boolean[Short.MAX_VALUE / 2]; // @NOTE pressed in current frame
-        private final boolean[] lastKeys = new boolean[keys.length];     // @NOTE pressed in last frame
-        {
-            assert keys.length == lastKeys.length;
-        }
+        // @NOTE Filled on the EDT and drained by the render thread at the start of every frame. Neither side ever
+        // waits for the other one.
+        private final ConcurrentLinkedQueue<KeyEvent> events = new ConcurrentLinkedQueue<>();
+
+        // @NOTE keys which are currently held down; only ever touched by the render thread
+        private final boolean[] held = new boolean[Short.MAX_VALUE / 2];
+
+        // @NOTE Returns the next key press or null if there is none left. Holding a key down makes the OS send the
+        // same key press over and over again; these repeats are dropped so holding e.g. the right arrow key only ever
+        // advances by one slide.
+        KeyEvent pollKeyPress() {
+            KeyEvent evt;
+            while ((evt = events.poll()) != null) {
+                final int code = evt.getKeyCode();
+                final boolean tracked = code >= 0 && code < held.length;
+                if (evt.getID() == KeyEvent.KEY_RELEASED) {
+                    if (tracked) {
+                        held[code] = false;
+                    }
+                    continue;
+                }
 
-        // @NOTE gets called every frame (must be last call inside input code)
-        void update() {
-            for (int i = 0; i < keys.length; ++i) {
-                lastKeys[i] = keys[i];
+                if (tracked) {
+                    if (held[code]) {
+                        continue;
+                    }
+                    held[code] = true;
+                }
+                return evt;
             }
-        }
-
-        // @NOTE current frame
-        public boolean isKeyPressed(final int code) {
-            return keys[code];
-        }
-
-        // @NOTE when key is released/up
-        public boolean isKeyUp(final int code) {
-            return !keys[code] && lastKeys[code];
-        }
-
-        // @NOTE when key is pressed/down
-        public boolean isKeyDown(final int code) {
-            return keys[code] && !lastKeys[code];
+            return null;
         }
 
         @Override
         public void keyPressed(final KeyEvent evt) {
-            keys[evt.getKeyCode()] = true;
+            events.add(evt);
+            requestFrame();
         }
 
         @Override
         public void keyReleased(final KeyEvent evt) {
-            keys[evt.getKeyCode()] = false;
+            events.add(evt);
+            requestFrame();
         }
     }
 }
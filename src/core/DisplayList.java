@@ -0,0 +1,221 @@
+//
+// Flat list of drawing commands a slide is compiled into after every resize.
+//
+// Every element used to set up its own Graphics2D state on every frame (g.create(), rotate(),
+// new BasicStroke(), dispose()). Now the elements describe what they draw once, with every stroke,
+// paint, composite and transform already built, and the builder drops state changes which are
+// already in effect. Drawing the slide then is a single pass over a few arrays.
+//
+// Commands are stored as parallel arrays: an op code, an object (paint, stroke, glyphs, ...) and
+// four floats (a position or a rectangle) per command.
+//
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class DisplayList {
+
+    // @NOTE For whatever can not be drawn up front, e.g. an image that is still being decoded or an animated gif. Has
+    // to leave the graphics state the way it found it.
+    public interface Drawable {
+        void draw(final Graphics2D g);
+    }
+
+    private static final byte PAINT     = 0;
+    private static final byte STROKE    = 1;
+    private static final byte COMPOSITE = 2;
+    private static final byte TRANSFORM = 3; // @NOTE relative to the transform the list is executed with; null resets it
+    private static final byte FILL_RECT = 4;
+    private static final byte DRAW_RECT = 5;
+    private static final byte FILL_OVAL = 6;
+    private static final byte DRAW_OVAL = 7;
+    private static final byte FILL      = 8;
+    private static final byte GLYPHS    = 9;
+    private static final byte DRAWABLE  = 10;
+
+    private static final Stroke DEFAULT_STROKE       = new BasicStroke();
+    private static final Composite DEFAULT_COMPOSITE = AlphaComposite.SrcOver;
+
+    public static final DisplayList EMPTY = new Builder().build();
+
+    private final byte[] ops;
+    private final Object[] objects;
+    private final float[] args;
+    private final boolean hasTransforms;
+
+    private DisplayList(final byte[] ops, final Object[] objects, final float[] args, final boolean hasTransforms) {
+        this.ops           = ops;
+        this.objects       = objects;
+        this.args          = args;
+        this.hasTransforms = hasTransforms;
+    }
+
+    public boolean isEmpty() {
+        return ops.length == 0;
+    }
+
+    // @NOTE Leaves 'g' with its transform and the default stroke and composite; only the paint is changed.
+    public void execute(final Graphics2D g) {
+        final AffineTransform base = hasTransforms ? g.getTransform() : null;
+
+        for (int i = 0, a = 0, l = ops.length; i < l; ++i, a += 4) {
+            switch (ops[i]) {
+                case PAINT     -> g.setPaint((Paint) objects[i]);
+                case STROKE    -> g.setStroke((Stroke) objects[i]);
+                case COMPOSITE -> g.setComposite((Composite) objects[i]);
+                case TRANSFORM -> {
+                    g.setTransform(base);
+                    if (objects[i] != null) {
+                        g.transform((AffineTransform) objects[i]);
+                    }
+                }
+                case FILL_RECT -> g.fillRect((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                case DRAW_RECT -> g.drawRect((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                case FILL_OVAL -> g.fillOval((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                case DRAW_OVAL -> g.drawOval((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                case FILL      -> g.fill((Shape) objects[i]);
+                case GLYPHS    -> g.drawGlyphVector((GlyphVector) objects[i], args[a], args[a + 1]);
+                case DRAWABLE  -> ((Drawable) objects[i]).draw(g);
+                default        -> { assert false; }
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private static final Object UNKNOWN = new Object(); // @NOTE the state the list gets executed with
+
+        private byte[] ops        = new byte[32];
+        private Object[] objects  = new Object[32];
+        private float[] args      = new float[32 * 4];
+        private int count         = 0;
+        private boolean hasTransforms = false;
+
+        private Object paint      = UNKNOWN;
+        private Object stroke     = UNKNOWN;
+        private Object composite  = UNKNOWN;
+        private AffineTransform transform = null; // @NOTE null is the transform the list gets executed with
+
+        public Builder paint(final Paint paint) {
+            assert paint != null;
+
+            if (!Objects.equals(this.paint, paint)) {
+                add(PAINT, paint, 0, 0, 0, 0);
+                this.paint = paint;
+            }
+            return this;
+        }
+
+        public Builder stroke(final Stroke stroke) {
+            assert stroke != null;
+
+            if (!Objects.equals(this.stroke, stroke)) {
+                add(STROKE, stroke, 0, 0, 0, 0);
+                this.stroke = stroke;
+            }
+            return this;
+        }
+
+        public Builder composite(final Composite composite) {
+            assert composite != null;
+
+            if (!Objects.equals(this.composite, composite)) {
+                add(COMPOSITE, composite, 0, 0, 0, 0);
+                this.composite = composite;
+            }
+            return this;
+        }
+
+        // @NOTE null (or an identity transform) goes back to the transform the list gets executed with
+        public Builder transform(final AffineTransform transform) {
+            final AffineTransform t = transform == null || transform.isIdentity() ? null : transform;
+            if (!Objects.equals(this.transform, t)) {
+                add(TRANSFORM, t, 0, 0, 0, 0);
+                this.transform = t;
+                hasTransforms  = true;
+            }
+            return this;
+        }
+
+        public Builder fillRect(final int x, final int y, final int width, final int height) {
+            add(FILL_RECT, null, x, y, width, height);
+            return this;
+        }
+
+        public Builder drawRect(final int x, final int y, final int width, final int height) {
+            add(DRAW_RECT, null, x, y, width, height);
+            return this;
+        }
+
+        public Builder fillOval(final int x, final int y, final int width, final int height) {
+            add(FILL_OVAL, null, x, y, width, height);
+            return this;
+        }
+
+        public Builder drawOval(final int x, final int y, final int width, final int height) {
+            add(DRAW_OVAL, null, x, y, width, height);
+            return this;
+        }
+
+        public Builder fill(final Shape shape) {
+            assert shape != null;
+
+            add(FILL, shape, 0, 0, 0, 0);
+            return this;
+        }
+
+        public Builder glyphs(final GlyphVector glyphs, final float x, final float y) {
+            assert glyphs != null;
+
+            add(GLYPHS, glyphs, x, y, 0, 0);
+            return this;
+        }
+
+        public Builder drawable(final Drawable drawable) {
+            assert drawable != null;
+
+            add(DRAWABLE, drawable, 0, 0, 0, 0);
+            return this;
+        }
+
+        // @NOTE Hands the graphics back with the defaults (except for the paint), just like all the g.create() and
+        // dispose() calls of the elements used to.
+        public DisplayList build() {
+            if (stroke != UNKNOWN) {
+                stroke(DEFAULT_STROKE);
+            }
+            if (composite != UNKNOWN) {
+                composite(DEFAULT_COMPOSITE);
+            }
+            if (transform != null) {
+                add(TRANSFORM, null, 0, 0, 0, 0);
+                transform = null;
+            }
+            return new DisplayList(Arrays.copyOf(ops, count), Arrays.copyOf(objects, count), Arrays.copyOf(args, count * 4), hasTransforms);
+        }
+
+        private void add(final byte op, final Object object, final float a0, final float a1, final float a2, final float a3) {
+            if (count == ops.length) {
+                ops     = Arrays.copyOf(ops,     count * 2);
+                objects = Arrays.copyOf(objects, count * 2);
+                args    = Arrays.copyOf(args,    count * 2 * 4);
+            }
+            ops[count]     = op;
+            objects[count] = object;
+            args[count * 4]     = a0;
+            args[count * 4 + 1] = a1;
+            args[count * 4 + 2] = a2;
+            args[count * 4 + 3] = a3;
+            count += 1;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+//
+// Headless check that a frame of a static slideshow does not allocate.
+//
+// Shows a small slideshow on a Display without a window and draws frames the way the main loop
+// does: clearing, the slide through its cached layer, the extended debug overlay and the mouse
+// pointer. After a warm-up every single frame has to come out without the render thread having
+// allocated a single byte. An allocation that sneaks back into the frame path shows up here long
+// before it shows up as GC pauses in a talk. Run it with 'java ./build.java --check'.
+//
+// The frames are drawn into a VolatileImage, just like the back buffers are on screen.
+//
+// The number of frames measured can be set with -Dkagami.check_frames=<n>.
+//
+
+import java.awt.EventQueue;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+public final class FrameAllocationCheck {
+
+    private FrameAllocationCheck() {
+        assert false;
+    }
+
+    private static final int WIDTH  = 640;
+    private static final int HEIGHT = 360;
+    private static final int HZ     = 60;
+
+    // @NOTE Until the JIT has compiled the frame path, Java2D allocates a few small objects (e.g. the rectangles it
+    // clips blits with) which escape analysis removes later on.
+    private static final int WARMUP_FRAMES = 30000;
+    private static final int FRAMES        = Math.max(1, Integer.getInteger("kagami.check_frames", 1000));
+
+    private static final long READY_TIMEOUT_MILLIS = 10000;
+
+    private static final String DECK = String.join("\n",
+            "(60;16:9)",
+            "",
+            "[Static]",
+            "Color=000000FF;202040FF;0.0;0.0;1.0;1.0;FALSE",
+            "",
+            "{TEXT}",
+            "",
+            "LINE=Hello, world!",
+            "LINE=This is just some text,",
+            "LINE=which has multiple lines.",
+            "X=0.5",
+            "Y=0.3",
+            "Size=0.3",
+            "Color=FFFFFFFF",
+            "",
+            "{RECT}",
+            "",
+            "X=0.3",
+            "Y=0.7",
+            "W=0.2",
+            "H=0.2",
+            "Color=FFFF0080",
+            "BorderSize=0.01",
+            "BorderColor=FF0000FF",
+            "Rotation=12",
+            "",
+            "{OVAL}",
+            "",
+            "X=0.7",
+            "Y=0.7",
+            "W=0.2",
+            "H=0.2",
+            "Color=00FFFF80",
+            "BorderSize=0.01",
+            "BorderColor=0000FFFF",
+            "Rotation=0",
+            "");
+
+    public static void main(final String[] args) throws Exception {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean) || !threadBean.isThreadAllocatedMemorySupported()) {
+            System.out.println("Measuring allocations per thread is not supported by this JVM!");
+            System.exit(1);
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final File file = File.createTempFile("kagami_check", ".kagami");
+        file.deleteOnExit();
+        Files.writeString(file.toPath(), DECK);
+
+        final Slide[] slideshow = new SlideShowFileParser(file).parse().slides();
+        final Slide slide = slideshow[0];
+
+        final Display[] created = new Display[1];
+        EventQueue.invokeAndWait(() -> created[0] = new Display(file.getName()));
+        final Display display = created[0];
+        display.initHeadless(HZ, WIDTH, HEIGHT);
+        display.newSlideShow(slideshow);
+
+        final VolatileImage frame = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics().getDeviceConfiguration().createCompatibleVolatileImage(WIDTH, HEIGHT);
+        final Graphics2D g = frame.createGraphics();
+
+        // @NOTE the slideshow is swapped in by the display's update thread once its images are ready
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(READY_TIMEOUT_MILLIS);
+        while (!slide.isResizedFor(WIDTH, HEIGHT) || !slide.isReady()) {
+            if (System.nanoTime() > deadline) {
+                System.out.println("Check failed: the slideshow never showed up!");
+                System.exit(1);
+            }
+            display.renderHeadlessFrame(g);
+        }
+
+        for (int i = 0; i < WARMUP_FRAMES; ++i) {
+            display.renderHeadlessFrame(g);
+        }
+
+        long total     = 0;
+        long worst     = 0;
+        int allocating = 0;
+        for (int i = 0; i < FRAMES; ++i) {
+            final long before = threadBean.getCurrentThreadAllocatedBytes();
+            display.renderHeadlessFrame(g);
+            final long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+            if (allocated != 0) {
+                allocating += 1;
+                total      += allocated;
+                worst       = Math.max(worst, allocated);
+            }
+        }
+
+        g.dispose();
+        frame.flush();
+
+        System.out.printf("Rendered %s frames, %s of them allocated (%s bytes in total, %s bytes at most in a single frame)\n", FRAMES, allocating, total, worst);
+        if (allocating != 0) {
+            System.out.println("Check failed: the frame path allocates again!");
+            System.exit(1);
+        }
+        System.out.println("Check success");
+    }
+}
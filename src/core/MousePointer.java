@@ -1,7 +1,10 @@
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 public final class MousePointer {
 
@@ -23,11 +26,44 @@ public final class MousePointer {
         }
     }
 
+    private static final Color BORDER_COLOR  = new Color(0, 0, 0, 255);
+    private static final Color FILL_COLOR    = new Color(255, 255, 0, 200);
+    private static final BasicStroke STROKE  = new BasicStroke(2);
+    private static final int PADDING         = 2; // @NOTE the border reaches past the oval by half its width
+
+    // @NOTE Java2D allocates every time it fills or strokes an oval, so the pointer is drawn into a sprite once its
+    // size changes and every frame only copies that.
+    private BufferedImage sprite               = null;
+    private GraphicsConfiguration spriteConfig = null;
+
     public void render(final Graphics2D g) {
-        g.setColor(new Color(0, 0, 0, 255));
-        g.setStroke(new BasicStroke(2));
-        g.drawOval((int) mx, (int) my, (int) mw, (int) mh);
-        g.setColor(new Color(255, 255, 0, 200));
-        g.fillOval((int) mx, (int) my, (int) mw, (int) mh);
+        final int w = (int) mw;
+        final int h = (int) mh;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        final GraphicsConfiguration gfxConfig = g.getDeviceConfiguration();
+        if (sprite == null || gfxConfig != spriteConfig || sprite.getWidth() != w + (2 * PADDING) || sprite.getHeight() != h + (2 * PADDING)) {
+            createSprite(g, gfxConfig, w, h);
+        }
+        g.drawImage(sprite, (int) mx - PADDING, (int) my - PADDING, null);
+    }
+
+    private void createSprite(final Graphics2D g, final GraphicsConfiguration gfxConfig, final int w, final int h) {
+        if (sprite != null) {
+            sprite.flush();
+        }
+        sprite       = gfxConfig.createCompatibleImage(w + (2 * PADDING), h + (2 * PADDING), Transparency.TRANSLUCENT);
+        spriteConfig = gfxConfig;
+
+        final Graphics2D sg = sprite.createGraphics();
+        sg.setRenderingHints(g.getRenderingHints());
+        sg.setColor(BORDER_COLOR);
+        sg.setStroke(STROKE);
+        sg.drawOval(PADDING, PADDING, w, h);
+        sg.setColor(FILL_COLOR);
+        sg.fillOval(PADDING, PADDING, w, h);
+        sg.dispose();
     }
 }
@@ -1,11 +1,28 @@
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.GradientPaint;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Paint;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
-import javax.sound.sampled.Clip;
 
 public final class Slide {
 
@@ -19,8 +36,40 @@ public final class Slide {
         public float x2     = 0;
         public float y2     = 0;
         public boolean cyclic = false;
+
+        public void write(final DataOutputStream out) throws IOException {
+            out.writeInt(color1.getRGB());
+            out.writeBoolean(color2 != null);
+            if (color2 != null) {
+                out.writeInt(color2.getRGB());
+            }
+            out.writeFloat(x1);
+            out.writeFloat(y1);
+            out.writeFloat(x2);
+            out.writeFloat(y2);
+            out.writeBoolean(cyclic);
+        }
+
+        public static Argb read(final ByteBuffer in) {
+            final Argb argb = new Argb();
+            argb.color1 = new Color(in.getInt(), true);
+            if (in.get() != 0) {
+                argb.color2 = new Color(in.getInt(), true);
+            }
+            argb.x1     = in.getFloat();
+            argb.y1     = in.getFloat();
+            argb.x2     = in.getFloat();
+            argb.y2     = in.getFloat();
+            argb.cyclic = in.get() != 0;
+            return argb;
+        }
     }
 
+    // @NOTE element tags of the compiled slideshow format (see SlideShowCache)
+    private static final byte FORM_TAG  = 0;
+    private static final byte IMAGE_TAG = 1;
+    private static final byte TEXT_TAG  = 2;
+
     private final String name;
     private final Argb argb;
     private final AudioRec audio;;
@@ -29,7 +78,9 @@ public final class Slide {
     private int screenWidth  = 0;
     private int screenHeight = 0;
 
-    private boolean firstEnter = true;
+    private boolean firstEnter   = true;
+    private boolean destroyed    = false;
+    private boolean audioChanged = false; // @NOTE see reloadAsset()
 
     private GradientPaint gradient;
     private float gradientTargetX1;
@@ -37,7 +88,18 @@ public final class Slide {
     private float gradientTargetX2;
     private float gradientTargetY2;
 
-    private Clip clip = null;
+    private AudioCache.Playback playback = null;
+
+    // @NOTE Resolved off the render thread, when the slide is built and whenever its audio file changes (see
+    // reloadAsset()), so entering the slide never has to ask the file system about it.
+    private volatile AudioCache.AudioKeyRec audioKey;
+
+    // @NOTE Only the slide on display holds a layer (see onExit()); a screen sized layer for every slide of a large
+    // slideshow would eat all the video memory there is.
+    private VolatileImage layer = null;
+    private boolean layerValid  = false;
+
+    private DisplayList displayList = DisplayList.EMPTY; // @NOTE all the elements, compiled for the current size
 
     public Slide(final String name, final Argb argb, final AudioRec audio, final Element... elements) {
         assert name != null;
@@ -47,6 +109,7 @@ public final class Slide {
         this.audio     = audio;
         this.argb      = argb;
         this.elements  = elements;
+        this.audioKey  = audio != null ? AudioCache.resolve(audio.file()) : null;
     }
 
     public void onEnter() {
@@ -54,16 +117,10 @@ public final class Slide {
 
         if (audio != null) {
             if (firstEnter) {
-                clip = AudioUtils.createAudioClip(audio.file(), audio.decibel());
-                if (clip != null) {
-                    AudioUtils.playAudioClip(clip, audio.loop());
-                }
+                playback = AudioCache.play(audioKey, audio.decibel(), audio.loop());
             } else {
                 if (!audio.carry) { // @NOTE prevent audio files being played multiple times when reentering the same slide
-                    clip = AudioUtils.createAudioClip(audio.file(), audio.decibel());
-                    if (clip != null) {
-                        AudioUtils.playAudioClip(clip, audio.loop());
-                    }
+                    playback = AudioCache.play(audioKey, audio.decibel(), audio.loop());
                 }
             }
         }
@@ -71,24 +128,39 @@ public final class Slide {
         firstEnter = false;
     }
 
-    public void onExit() {
+    // @NOTE Everything touching the layout (onResize(), render(), destroy()) is synchronized on the slide, since the
+    // slides next to the current one get resized in the background (see SlideResizer).
+    public synchronized void onExit() {
         Main.logger.log(Level.INFO, "Leaving: " + name);
 
+        flushLayer();
+
         if (audio != null) {
-            if (clip != null) {
+            if (playback != null) {
                 if (!audio.carry) {
-                    AudioUtils.stopAudioClip(clip);
+                    playback.stop();
                 }
             }
         }
     }
 
-    public void destroy() {
+    public synchronized void destroy() {
+        if (destroyed) {
+            return;
+        }
         Main.logger.log(Level.INFO, "Destroy: " + name);
 
-        if (clip != null) {
-            AudioUtils.stopAudioClip(clip);
+        destroyed = true;
+
+        if (playback != null) {
+            playback.stop();
         }
+
+        for (final Element e : elements) {
+            e.destroy();
+        }
+
+        flushLayer();
     }
 
     public void update() {
@@ -97,7 +169,65 @@ public final class Slide {
         }
     }
 
-    public void render(final Graphics2D g) {
+    // @NOTE Nothing on a slide changes from frame to frame (except for animated images), so we render it once into
+    // an accelerated layer and from then on every frame is a single copy of that layer.
+    public synchronized void render(final Graphics2D g) {
+        final GraphicsConfiguration gfxConfig = g.getDeviceConfiguration();
+        for (final Element e : elements) {
+            e.prepare(gfxConfig);
+        }
+        if (!isReady() || isAnimated() || screenWidth <= 0 || screenHeight <= 0) {
+            renderSlide(g);
+            return;
+        }
+        do {
+            if (layer == null || layer.getWidth() != screenWidth || layer.getHeight() != screenHeight) {
+                createLayer(gfxConfig);
+            }
+
+            final int status = layer.validate(gfxConfig);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) { // @NOTE e.g. the window has been moved to another screen
+                createLayer(gfxConfig);
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                layerValid = false;
+            }
+
+            if (!layerValid) {
+                final Graphics2D lg = layer.createGraphics();
+                lg.setRenderingHints(g.getRenderingHints());
+                renderSlide(lg);
+                lg.dispose();
+                layerValid = true;
+            }
+
+            g.drawImage(layer, 0, 0, null);
+        } while (layer.contentsLost()); // @NOTE the layer lives in video memory and can be taken away at any time
+    }
+
+    // @NOTE For a slide which is only ever drawn once (e.g. exported); going through the layer would just add a copy.
+    public synchronized void renderOnce(final Graphics2D g) {
+        final GraphicsConfiguration gfxConfig = g.getDeviceConfiguration();
+        for (final Element e : elements) {
+            e.prepare(gfxConfig);
+        }
+        renderSlide(g);
+    }
+
+    private void createLayer(final GraphicsConfiguration gfxConfig) {
+        flushLayer();
+        layer      = gfxConfig.createCompatibleVolatileImage(screenWidth, screenHeight);
+        layerValid = false;
+    }
+
+    private void flushLayer() {
+        if (layer != null) {
+            layer.flush();
+            layer = null;
+        }
+        layerValid = false;
+    }
+
+    private void renderSlide(final Graphics2D g) {
         if (argb.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
             g.setPaint(gradient);
         } else {
@@ -107,19 +237,201 @@ public final class Slide {
         // @NOTE slide background
         g.fillRect(0, 0, screenWidth, screenHeight);
 
+        // @NOTE Never show a half loaded slide. Until all of its images have been decoded we only show the background.
+        if (!isReady()) {
+            return;
+        }
+
         // @NOTE render all the elements on top of the slide
+        displayList.execute(g);
+    }
+
+    public boolean isAnimated() {
         for (final Element e : elements) {
-            e.render(g);
+            if (e.isAnimated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void write(final DataOutputStream out) throws IOException {
+        SlideShowCache.writeString(out, name);
+        argb.write(out);
+        out.writeBoolean(audio != null);
+        if (audio != null) {
+            SlideShowCache.writeString(out, audio.file());
+            out.writeFloat(audio.decibel());
+            out.writeBoolean(audio.loop());
+            out.writeBoolean(audio.carry());
+        }
+        out.writeInt(elements.length);
+        for (final Element e : elements) {
+            e.write(out);
+        }
+    }
+
+    // @NOTE A copy of the slide which has not been laid out, e.g. to draw it for something other than the screen without
+    // touching the layout the screen uses. Images are shared through the ImageCache. Has to be destroyed.
+    public Slide copy() throws IOException {
+        final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(memory)) {
+            write(out);
+        }
+        return read(ByteBuffer.wrap(memory.toByteArray()));
+    }
+
+    public static Slide read(final ByteBuffer in) throws IOException {
+        final String name = SlideShowCache.readString(in);
+        final Argb argb   = Argb.read(in);
+        AudioRec audio = null;
+        if (in.get() != 0) {
+            final String file = SlideShowCache.readString(in);
+            if (!new File(file).isFile()) {
+                throw new IOException(String.format("Audio file '%s' does not exist anymore", file));
+            }
+            audio = new AudioRec(file, in.getFloat(), in.get() != 0, in.get() != 0);
+        }
+        final Element[] elements = new Element[in.getInt()];
+        for (int i = 0; i < elements.length; ++i) {
+            final byte tag = in.get();
+            elements[i] = switch (tag) {
+                case FORM_TAG  : yield Form.read(in);
+                case IMAGE_TAG : yield Image.read(in);
+                case TEXT_TAG  : yield Text.read(in);
+                default        : throw new IOException("Unknown element tag " + tag);
+            };
+        }
+        return new Slide(name, argb, audio, elements);
+    }
+
+    // @NOTE completes (maybe exceptionally, if an image fails to decode) once isReady() is true
+    public CompletableFuture<Void> whenReady() {
+        final CompletableFuture<?>[] pending = new CompletableFuture<?>[elements.length];
+        for (int i = 0; i < elements.length; ++i) {
+            pending[i] = elements[i].whenReady();
+        }
+        return CompletableFuture.allOf(pending);
+    }
+
+    public boolean isReady() {
+        for (final Element e : elements) {
+            if (!e.isReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // @NOTE Starts decoding the slide's audio in the background, so entering the slide can start playing right away.
+    public void prefetchAudio() {
+        if (audio != null) {
+            AudioCache.prefetch(audioKey);
+        }
+    }
+
+    // @NOTE every file the slide reads from disk (images and audio), as given in the slideshow
+    public void collectAssets(final Collection<Path> assets) {
+        assert assets != null;
+
+        if (audio != null) {
+            assets.add(Path.of(audio.file()));
+        }
+        for (final Element e : elements) {
+            if (e.asset() != null) {
+                assets.add(Path.of(e.asset()));
+            }
+        }
+    }
+
+    // @NOTE Starts reloading every element which shows 'asset' (an absolute path). Returns null if the slide does not
+    // use it, otherwise a future which completes once applyReloadedAssets() can swap in the new versions. Until then
+    // the slide keeps showing the old ones, so a replaced image never leaves a hole on screen. Nothing else on the slide
+    // is laid out or loaded again.
+    public synchronized CompletableFuture<Void> reloadAsset(final Path asset) {
+        assert asset != null;
+
+        if (destroyed) {
+            return null;
+        }
+
+        final ArrayList<CompletableFuture<?>> pending = new ArrayList<>();
+        if (audio != null && isSameFile(audio.file(), asset)) {
+            audioKey     = AudioCache.resolve(audio.file()); // @NOTE the next enter plays the new version
+            audioChanged = true; // @NOTE only audio playing right now is stale
+            pending.add(CompletableFuture.completedFuture(null));
+        }
+        for (final Element e : elements) {
+            if (e.asset() != null && isSameFile(e.asset(), asset)) {
+                pending.add(e.reloadAsset());
+            }
+        }
+        return pending.isEmpty() ? null : CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // @NOTE Must be called from the render thread, like onEnter().
+    public synchronized void applyReloadedAssets() {
+        if (destroyed) {
+            return;
+        }
+
+        for (final Element e : elements) {
+            e.applyReloadedAsset();
+        }
+        layerValid = false;
+
+        if (audioChanged) {
+            audioChanged = false;
+            if (playback != null && playback.isPlaying()) {
+                playback.stop();
+                playback = AudioCache.play(audioKey, audio.decibel(), audio.loop()); // @NOTE decodes the new version
+            }
+        }
+    }
+
+    private static boolean isSameFile(final String file, final Path asset) {
+        return Path.of(file).toAbsolutePath().normalize().equals(asset);
+    }
+
+    // @NOTE For slides which have moved out of the range the SlideResizer keeps laid out. Drops the layout (and with
+    // it the scaled images the slide holds on to), so it gets laid out again once it comes close to being shown.
+    public synchronized void dropLayout() {
+        if (screenWidth == 0 && screenHeight == 0) {
+            return;
+        }
+        screenWidth  = 0;
+        screenHeight = 0;
+        displayList  = DisplayList.EMPTY;
+        for (final Element e : elements) {
+            e.dropLayout();
+        }
+        flushLayer();
+    }
+
+    public synchronized boolean isResizedFor(final int screenWidth, final int screenHeight) {
+        return this.screenWidth == screenWidth && this.screenHeight == screenHeight;
+    }
+
+    // @NOTE Resizes the slide unless it already has the given size (or has been destroyed meanwhile). Returns right away
+    // if there is nothing to do and waits for a resize of the same slide in the background otherwise.
+    public synchronized void ensureResized(final Graphics2D g, final int screenWidth, final int screenHeight) {
+        if (destroyed || isResizedFor(screenWidth, screenHeight)) {
+            return;
         }
+        onResize(g, screenWidth, screenHeight);
     }
 
-    public void onResize(final Graphics2D g, final int screenWidth, final int screenHeight) {
+    public synchronized void onResize(final Graphics2D g, final int screenWidth, final int screenHeight) {
         this.screenWidth  = screenWidth;
         this.screenHeight = screenHeight;
+        this.layerValid   = false;
 
+        final DisplayList.Builder list = new DisplayList.Builder();
         for (final Element e : elements) {
             e.onResize(g, screenWidth, screenHeight);
+            e.compile(list);
         }
+        displayList = list.build();
 
         if (argb.color2 != null) { // @NOTE we do not need to calculate these if we do not have a second color (gradient)
             gradientTargetX1 = screenWidth  * (argb.x1 * 100.0f) / 100.0f;
@@ -132,8 +444,18 @@ public final class Slide {
 
     public interface Element {
         void update();
-        void render(final Graphics2D g);
+        default boolean isReady() { return true; }
+        default CompletableFuture<?> whenReady() { return CompletableFuture.completedFuture(null); }
+        default String asset() { return null; } // @NOTE the file the element shows, if any
+        default CompletableFuture<?> reloadAsset() { return CompletableFuture.completedFuture(null); }
+        default void applyReloadedAsset() {} // @NOTE called once the future of reloadAsset() has completed
+        default void prepare(final GraphicsConfiguration gfxConfig) {} // @NOTE called before every render()
+        default void dropLayout() {} // @NOTE frees whatever onResize() has built that is expensive to keep around
+        default void destroy() {}
+        default boolean isAnimated() { return false; } // @NOTE animated elements can not be cached in the slide's layer
+        void compile(final DisplayList.Builder list); // @NOTE called after every onResize()
         default void onResize(final Graphics2D g, final int screenWidth, final int screenHeight) {}
+        void write(final DataOutputStream out) throws IOException;
     }
 
     public static final class Form implements Element {
@@ -194,61 +516,57 @@ public final class Slide {
             this.borderColor          = borderColor;
         }
 
+        @Override
+        public void write(final DataOutputStream out) throws IOException {
+            out.writeByte(FORM_TAG);
+            out.writeByte(type.ordinal());
+            color.write(out);
+            out.writeFloat(xPosPercentage);
+            out.writeFloat(yPosPercentage);
+            out.writeFloat(widthPercentage);
+            out.writeFloat(heightPercentage);
+            out.writeFloat(rotation);
+            out.writeFloat(borderSizePercentage);
+            borderColor.write(out);
+        }
+
+        public static Form read(final ByteBuffer in) {
+            final Type type  = Type.values()[in.get()];
+            final Argb color = Argb.read(in);
+            final float x    = in.getFloat();
+            final float y    = in.getFloat();
+            final float w    = in.getFloat();
+            final float h    = in.getFloat();
+            final float rot  = in.getFloat();
+            final float borderSize = in.getFloat();
+            return new Form(type, color, x, y, w, h, rot, borderSize, Argb.read(in));
+        }
+
         @Override
         public void update() {
         }
 
         @Override
-        public void render(final Graphics2D g) {
+        public void compile(final DisplayList.Builder list) {
+            final int x = (int) targetXPosPx;
+            final int y = (int) targetYPosPx;
+            final int w = (int) targetWidthPx;
+            final int h = (int) targetHeightPx;
+
+            list.transform(rotation != 0 ? AffineTransform.getRotateInstance(Math.toRadians(rotation), targetXPosPx + (targetWidthPx / 2), targetYPosPx + (targetHeightPx / 2)) : null);
+            list.paint(color.color2 != null ? gradient : color.color1); // @NOTE if the second color is set we want to treat it as a gradient
             switch (type) {
-                case RECT: {
-                    final Graphics2D g2 = (Graphics2D) g.create();
-
-                    if (color.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g2.setPaint(gradient);
-                    } else {
-                        g2.setColor(color.color1);
-                    }
-
-                    g2.rotate(Math.toRadians(rotation), targetXPosPx + (targetWidthPx / 2), targetYPosPx + (targetHeightPx / 2));
-                    g2.fillRect((int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx);
-
-                    if (borderColor.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g2.setPaint(borderGradient);
-                    } else {
-                        g2.setColor(borderColor.color1);
-                    }
-                    g2.setStroke(new BasicStroke(targetBorderPx));
-                    g2.drawRect((int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx);
-                    g2.dispose();
-                } break;
-
-                case OVAL: {
-                    final Graphics2D g2 = (Graphics2D) g.create();
-
-                    if (color.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g2.setPaint(gradient);
-                    } else {
-                        g2.setColor(color.color1);
-                    }
-
-                    g2.rotate(Math.toRadians(rotation), targetXPosPx + (targetWidthPx / 2), targetYPosPx + (targetHeightPx / 2));
-                    g2.fillOval((int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx);
-
-                    if (borderColor.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g2.setPaint(borderGradient);
-                    } else {
-                        g2.setColor(borderColor.color1);
-                    }
-                    g2.setStroke(new BasicStroke(targetBorderPx));
-                    g2.drawOval((int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx);
-
-                    g2.dispose();
-                } break;
+                case RECT -> list.fillRect(x, y, w, h);
+                case OVAL -> list.fillOval(x, y, w, h);
+                default   -> { assert false; }
+            }
 
-                default: {
-                    assert false;
-                } break;
+            list.paint(borderColor.color2 != null ? borderGradient : borderColor.color1);
+            list.stroke(new BasicStroke(targetBorderPx));
+            switch (type) {
+                case RECT -> list.drawRect(x, y, w, h);
+                case OVAL -> list.drawOval(x, y, w, h);
+                default   -> { assert false; }
             }
         }
 
@@ -280,7 +598,18 @@ public final class Slide {
 
     public static final class Image implements Element {
 
-        private final java.awt.Image img;
+        private final String file; // @NOTE null if no FILE has been specified
+        private ImageCache.ImageRec img; // @NOTE null if no FILE has been specified
+        private ImageCache.ImageRec reloaded = null; // @NOTE the new version of the file while it is being decoded
+
+        private boolean released = false;
+
+        // @NOTE The image pre scaled to the target size (shared through the ImageCache), so a frame only has to copy it
+        // 1:1. null as long as the image has not been decoded yet, for images we can not scale up front (animated gifs)
+        // and while the slide is not laid out. 'shown' is the last scaled image which was done; after a resize it is
+        // drawn stretched until the one for the new size is done.
+        private volatile ImageCache.ScaledRec scaled = null;
+        private volatile BufferedImage shown         = null;
 
         private final float xPosPercentage;
         private final float yPosPercentage;
@@ -306,8 +635,9 @@ public final class Slide {
         private float borderGradientTargetX2;
         private float borderGradientTargetY2;
 
-        public Image(final java.awt.Image img, final float xPosPercentage, final float yPosPercentage, final float widthPercentage, final float heightPercentage, final float alpha, final float rotation, final float borderSizePercentage, final Argb borderColor) {
-            this.img = img;
+        public Image(final String file, final ImageCache.ImageRec img, final float xPosPercentage, final float yPosPercentage, final float widthPercentage, final float heightPercentage, final float alpha, final float rotation, final float borderSizePercentage, final Argb borderColor) {
+            this.file = file;
+            this.img  = img;
 
             this.xPosPercentage = xPosPercentage;
             this.yPosPercentage = yPosPercentage;
@@ -323,32 +653,211 @@ public final class Slide {
             this.borderColor          = borderColor;
         }
 
+        @Override
+        public void write(final DataOutputStream out) throws IOException {
+            out.writeByte(IMAGE_TAG);
+            out.writeBoolean(file != null);
+            if (file != null) {
+                SlideShowCache.writeString(out, file);
+            }
+            out.writeFloat(xPosPercentage);
+            out.writeFloat(yPosPercentage);
+            out.writeFloat(widthPercentage);
+            out.writeFloat(heightPercentage);
+            out.writeFloat(alpha);
+            out.writeFloat(rotation);
+            out.writeFloat(borderSizePercentage);
+            borderColor.write(out);
+        }
+
+        public static Image read(final ByteBuffer in) throws IOException {
+            String file = null;
+            ImageCache.ImageRec img = null;
+            if (in.get() != 0) {
+                file = SlideShowCache.readString(in);
+                if (!new File(file).isFile()) {
+                    throw new IOException(String.format("Image file '%s' does not exist anymore", file));
+                }
+                img = ImageCache.acquire(file); // @NOTE same as the parser does
+            }
+            final float x     = in.getFloat();
+            final float y     = in.getFloat();
+            final float w     = in.getFloat();
+            final float h     = in.getFloat();
+            final float alpha = in.getFloat();
+            final float rot   = in.getFloat();
+            final float borderSize = in.getFloat();
+            return new Image(file, img, x, y, w, h, alpha, rot, borderSize, Argb.read(in));
+        }
+
         @Override
         public void update() {
         }
 
         @Override
-        public void render(final Graphics2D g) {
-            // @NOTE create new graphics since we are modify transform and stuff
-            // This might be slow, since we also have to call dispose each frame.
-            // What we could do is get the AffineTransform and apply it back perhaps?
-            final Graphics2D g2 = (Graphics2D) g.create();
-
-            g2.setColor(Color.BLACK); // @TODO: Make this configurable?
-            g2.setComposite(java.awt.AlphaComposite.getInstance(java.awt.AlphaComposite.SRC_OVER, alpha));
-            g2.rotate(Math.toRadians(rotation), targetXPosPx + (targetWidthPx / 2), targetYPosPx + (targetHeightPx / 2));
-            g2.drawImage(img, (int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx, null);
-            g2.setComposite(java.awt.AlphaComposite.getInstance(java.awt.AlphaComposite.SRC_OVER, 1.0f));
-
-            if (borderColor.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                g2.setPaint(borderGradient);
-            } else {
-                g2.setColor(borderColor.color1);
+        public boolean isReady() {
+            if (img == null) {
+                return true;
+            }
+            if (!img.image().isDone()) {
+                return false;
+            }
+            if (!(decodedImage() instanceof BufferedImage) || (int) targetWidthPx <= 0 || (int) targetHeightPx <= 0) {
+                return true; // @NOTE an image which failed to decode is as ready as it will ever be; gifs are drawn as they are
+            }
+            final ImageCache.ScaledRec s = scaled;
+            return shown != null || (s != null && s.image().isDone());
+        }
+
+        // @NOTE Once laid out, this includes scaling the image to its size.
+        @Override
+        public CompletableFuture<?> whenReady() {
+            if (img == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            final ImageCache.ScaledRec s = scaled;
+            return s == null ? img.image() : CompletableFuture.allOf(img.image(), s.image());
+        }
+
+        @Override
+        public void prepare(final GraphicsConfiguration gfxConfig) {
+            if (scaled == null) {
+                requestScaled(gfxConfig); // @NOTE e.g. decoded only after the last resize
+            }
+        }
+
+        @Override
+        public void dropLayout() {
+            releaseScaled();
+            shown = null;
+        }
+
+        @Override
+        public String asset() {
+            return file;
+        }
+
+        @Override
+        public CompletableFuture<?> reloadAsset() {
+            if (file == null || released) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (reloaded != null) { // @NOTE changed again before the previous version was even decoded
+                ImageCache.release(reloaded);
+            }
+            reloaded = ImageCache.acquire(file); // @NOTE the file has a new size or modification time, so this decodes it again
+            return reloaded.image().handle((image, ex) -> null); // @NOTE an image which failed to decode is shown as that
+        }
+
+        @Override
+        public void applyReloadedAsset() {
+            if (reloaded == null || !reloaded.image().isDone()) {
+                return; // @NOTE changed once more meanwhile; swapped in once that version is decoded
+            }
+            ImageCache.release(img);
+            img      = reloaded;
+            reloaded = null;
+            releaseScaled(); // @NOTE scaled again before the next frame; the old version is shown until that is done
+        }
+
+        @Override
+        public void destroy() {
+            if (img != null && !released) {
+                ImageCache.release(img);
+                released = true;
+            }
+            if (reloaded != null) {
+                ImageCache.release(reloaded);
+                reloaded = null;
+            }
+            releaseScaled();
+            shown = null;
+        }
+
+        // @NOTE null while the image is still being decoded or if it failed to decode
+        private java.awt.Image decodedImage() {
+            if (img == null || !img.image().isDone() || img.image().isCompletedExceptionally()) {
+                return null;
+            }
+            return img.image().join();
+        }
+
+        // @NOTE Only gifs are not decoded into a BufferedImage. An image which is still being scaled is drawn from the
+        // previous scaled image for the time being, so it has to be drawn again once it is done.
+        @Override
+        public boolean isAnimated() {
+            final java.awt.Image image = decodedImage();
+            if (image != null && !(image instanceof BufferedImage)) {
+                return true;
             }
-            g2.setStroke(new BasicStroke(targetBorderPx));
-            g2.drawRect((int) targetXPosPx, (int) targetYPosPx, (int) targetWidthPx, (int) targetHeightPx);
+            final ImageCache.ScaledRec s = scaled;
+            return s != null && !s.image().isDone();
+        }
 
-            g2.dispose();
+        private void requestScaled(final GraphicsConfiguration gfxConfig) {
+            if (img == null) {
+                return;
+            }
+            final int w = (int) targetWidthPx;
+            final int h = (int) targetHeightPx;
+            final ImageCache.ScaledRec s = scaled;
+            if (s != null && s.key().width() == w && s.key().height() == h && s.key().gfxConfig().equals(gfxConfig) && s.key().image().equals(img.key())) {
+                return;
+            }
+            releaseScaled();
+            if (!released && w > 0 && h > 0) {
+                scaled = ImageCache.acquireScaled(img, w, h, gfxConfig);
+            }
+        }
+
+        private void releaseScaled() {
+            final ImageCache.ScaledRec s = scaled;
+            if (s != null) {
+                ImageCache.releaseScaled(s);
+                scaled = null;
+            }
+        }
+
+        // @NOTE null until the first scaled image is done
+        private BufferedImage shownImage() {
+            final ImageCache.ScaledRec s = scaled;
+            if (s != null && s.image().isDone() && !s.image().isCompletedExceptionally()) {
+                shown = s.image().join();
+            }
+            return shown;
+        }
+
+        @Override
+        public void compile(final DisplayList.Builder list) {
+            final int x = (int) targetXPosPx;
+            final int y = (int) targetYPosPx;
+            final int w = (int) targetWidthPx;
+            final int h = (int) targetHeightPx;
+
+            list.transform(rotation != 0 ? AffineTransform.getRotateInstance(Math.toRadians(rotation), targetXPosPx + (targetWidthPx / 2), targetYPosPx + (targetHeightPx / 2)) : null);
+            list.composite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            list.drawable(this::draw); // @NOTE the image might still be decoding or be a gif, so it is looked at every time
+            list.composite(AlphaComposite.SrcOver);
+
+            list.paint(borderColor.color2 != null ? borderGradient : borderColor.color1); // @NOTE if the second color is set we want to treat it as a gradient
+            list.stroke(new BasicStroke(targetBorderPx));
+            list.drawRect(x, y, w, h);
+        }
+
+        private void draw(final Graphics2D g) {
+            final int x = (int) targetXPosPx;
+            final int y = (int) targetYPosPx;
+            final int w = (int) targetWidthPx;
+            final int h = (int) targetHeightPx;
+
+            final BufferedImage image = shownImage();
+            if (image == null) {
+                g.drawImage(decodedImage(), x, y, w, h, null); // @NOTE gifs and images which failed to scale
+            } else if (image.getWidth() == w && image.getHeight() == h) {
+                g.drawImage(image, x, y, null);
+            } else {
+                g.drawImage(image, x, y, w, h, null); // @NOTE the new size is still being scaled
+            }
         }
 
         @Override
@@ -359,6 +868,8 @@ public final class Slide {
             targetYPosPx     = (screenHeight * (yPosPercentage       * 100.0f) / 100.0f) - (targetHeightPx / 2);
             targetBorderPx   = targetWidthPx * (borderSizePercentage * 100.0f) / 100.0f;
 
+            requestScaled(g.getDeviceConfiguration()); // @NOTE if the image is still being decoded, prepare() does it later on
+
             if (borderColor.color2 != null) { // @NOTE we do not need to calculate these if we do not have a second color (gradient)
                 borderGradientTargetX1 = screenWidth  * (borderColor.x1 * 100.0f) / 100.0f;
                 borderGradientTargetY1 = screenHeight * (borderColor.y1 * 100.0f) / 100.0f;
@@ -389,6 +900,15 @@ public final class Slide {
         private boolean strikeThrough = false;
         private Font font             = null;
 
+        // @NOTE Everything compile() needs, laid out once per resize: the glyphs of every line, where to put them and
+        // the bars for underline and strike through. Rendering a text then is nothing but drawing these.
+        private GlyphVector[] glyphs               = new GlyphVector[0];
+        private float[] baselines                  = new float[0];
+        private AffineTransform[] rotations        = new AffineTransform[0]; // @NOTE entries are null if the text is not rotated
+        private Rectangle2D.Float[] underlines     = new Rectangle2D.Float[0];
+        private Rectangle2D.Float[] strikeThroughs = new Rectangle2D.Float[0];
+        private Paint paint                        = null;
+
         private GradientPaint gradient;
         private float gradientTargetX1;
         private float gradientTargetY1;
@@ -424,85 +944,69 @@ public final class Slide {
         }
 
         @Override
-        public void update() {
+        public void write(final DataOutputStream out) throws IOException {
+            out.writeByte(TEXT_TAG);
+            out.writeInt(lines.length);
+            for (final String line : lines) {
+                SlideShowCache.writeString(out, line); // @NOTE already reversed if it had to be
+            }
+            argb.write(out);
+            SlideShowCache.writeString(out, fontName);
+            out.writeInt(style);
+            out.writeBoolean(underline);
+            out.writeBoolean(strikeThrough);
+            out.writeFloat(xPosPercentage);
+            out.writeFloat(yPosPercentage);
+            out.writeFloat(sizePercentage);
+            out.writeFloat(rotation);
         }
 
-        @Override
-        public void render(final Graphics2D g)  {
-            g.setFont(font.deriveFont(fontSize));
-
-            final var oldState = g.getTransform();
+        public static Text read(final ByteBuffer in) throws IOException {
+            final String[] lines = new String[in.getInt()];
+            for (int i = 0; i < lines.length; ++i) {
+                lines[i] = SlideShowCache.readString(in);
+            }
+            final Argb argb       = Argb.read(in);
+            final String fontName = SlideShowCache.readString(in);
+            if (!fontName.equals("Serfi") && !FontRegistry.isInstalled(fontName)) { // @NOTE "Serfi" is the parser's default
+                throw new IOException(String.format("Font '%s' is not installed anymore", fontName));
+            }
+            final int style               = in.getInt();
+            final boolean underline       = in.get() != 0;
+            final boolean strikeThrough   = in.get() != 0;
+            final float x    = in.getFloat();
+            final float y    = in.getFloat();
+            final float size = in.getFloat();
+            final float rot  = in.getFloat();
+            return new Text(lines, argb, fontName, style, underline, strikeThrough, false, x, y, size, rot);
+        }
 
-            final int strHeight = g.getFontMetrics().getHeight();
-            float y = targetYPosPx;
-            for (int i = 0, l = lines.length; i < l; ++i) {
-                final String line = lines[i];
+        @Override
+        public void update() {
+        }
 
-                g.rotate(Math.toRadians(rotation), targetXPosPx + (g.getFontMetrics().stringWidth(line) / 2), targetYPosPx + (strHeight / 2));
-
-                if (i != 0) {
-                    if (argb.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g.setPaint(gradient);
-                    } else {
-                        g.setColor(argb.color1);
-                    }
-                    g.drawString(line, (int) targetXPosPx, y += strHeight);
-
-                    if (underline) {
-                        final float lineWidth = g.getFontMetrics().stringWidth(line);
-                        // @TODO: Instead of using this constant offset (+4) we should use a delta offset between height and the y position of the next line
-                        g.fillRect((int) targetXPosPx, (int) y + 4, (int) lineWidth, strHeight / 8);
-                    }
-
-                    if (strikeThrough) {
-                        final float lineWidth  = g.getFontMetrics().stringWidth(line);
-                        final float lineHeight = strHeight / 8;
-                        // @TODO: Instead of using this constant offset (+4) we should use a delta offset between height and the y position of the next line
-                        g.fillRect((int) targetXPosPx, (int) y - (strHeight / 2) + ((int) lineHeight), (int) lineWidth, strHeight / 8);
-                    }
-
-                } else {
-                    if (argb.color2 != null) { // @NOTE if the second color is set we want to treat it as a gradient
-                        g.setPaint(gradient);
-                    } else {
-                        g.setColor(argb.color1);
-                    }
-                    g.drawString(line, (int) targetXPosPx, y);
-
-                    if (underline) {
-                        final float lineWidth = g.getFontMetrics().stringWidth(line);
-                        // @TODO: Instead of using this constant offset (+4) we should use a delta offset between height and the y position of the next line
-                        g.fillRect((int) targetXPosPx, (int) y + 4, (int) lineWidth, strHeight / 8);
-                    }
-
-                    if (strikeThrough) {
-                        final float lineWidth  = g.getFontMetrics().stringWidth(line);
-                        final float lineHeight = strHeight / 8;
-                        // @TODO: Instead of using this constant offset (+4) we should use a delta offset between height and the y position of the next line
-                        g.fillRect((int) targetXPosPx, (int) y - (strHeight / 2) + ((int) lineHeight), (int) lineWidth, strHeight / 8);
-                    }
+        @Override
+        public void compile(final DisplayList.Builder list) {
+            list.paint(paint);
+            for (int i = 0, l = glyphs.length; i < l; ++i) {
+                list.transform(rotations[i]);
+                list.glyphs(glyphs[i], (int) targetXPosPx, baselines[i]);
+                if (underline) {
+                    list.fill(underlines[i]);
+                }
+                if (strikeThrough) {
+                    list.fill(strikeThroughs[i]);
                 }
-                g.setTransform(oldState);
             }
         }
 
         @Override
         public void onResize(final Graphics2D g, final int screenWidth, final int screenHeight) {
             final float targetWidthPx = screenWidth * (sizePercentage * 100.0f) / 100.0f;
-            fontSize = 0.0f;
-            font = new Font(fontName, style, (int) fontSize);
-            while (true) {
-                final FontMetrics metrics = g.getFontMetrics(font.deriveFont(fontSize));
-                final float currentWidthPx = metrics.stringWidth(lines[0]); // @NOTE only use the first line
-
-                // @TODO: what about height???
-                if (currentWidthPx >= targetWidthPx) {
-                    break;
-                }
-                fontSize += 0.20f; // @NOTE this value has been chosen for a good reason; it seems to achieve the best accuracy while still being as high as possible to make this loop as fast as possible.
-            }
+            // @TODO: what about height???
+            fontSize = FontFitter.fitWidth(g, fontName, style, lines[0], targetWidthPx); // @NOTE only use the first line
+            font = FontRegistry.getFont(fontName, style, fontSize); // @NOTE shared with every other text of the same size
 
-            final FontMetrics metrics = g.getFontMetrics(font);
             targetXPosPx = (screenWidth  * (xPosPercentage * 100.0f) / 100.0f) - (targetWidthPx / 2);
             targetYPosPx = (screenHeight * (yPosPercentage * 100.0f) / 100.0f);// - (metrics.getHeight() / 2);
 
@@ -512,6 +1016,40 @@ public final class Slide {
                 gradientTargetX2 = screenWidth  * (argb.x2 * 100.0f) / 100.0f;
                 gradientTargetY2 = screenHeight * (argb.y2 * 100.0f) / 100.0f;
                 gradient = new GradientPaint(gradientTargetX1, gradientTargetY1, argb.color1, gradientTargetX2, gradientTargetY2, argb.color2, argb.cyclic);
+                paint    = gradient;
+            } else {
+                paint = argb.color1;
+            }
+
+            layoutLines(g);
+        }
+
+        private void layoutLines(final Graphics2D g) {
+            final FontRenderContext frc = g.getFontRenderContext();
+            final int strHeight         = g.getFontMetrics(font).getHeight();
+            final float barHeight       = strHeight / 8; // @NOTE deliberately bolder than what the font asks for so it can be seen from the back of the room
+
+            glyphs         = new GlyphVector[lines.length];
+            baselines      = new float[lines.length];
+            rotations      = new AffineTransform[lines.length];
+            underlines     = new Rectangle2D.Float[lines.length];
+            strikeThroughs = new Rectangle2D.Float[lines.length];
+            for (int i = 0; i < lines.length; ++i) {
+                final String line = lines[i];
+                final char[] chars = line.toCharArray();
+                glyphs[i]    = font.layoutGlyphVector(frc, chars, 0, chars.length, Font.LAYOUT_LEFT_TO_RIGHT); // @NOTE unlike createGlyphVector() this does shaping, just like drawString() does
+                baselines[i] = targetYPosPx + (i * strHeight);
+
+                final float lineWidth = g.getFontMetrics(font).stringWidth(line);
+                if (rotation != 0) {
+                    rotations[i] = AffineTransform.getRotateInstance(Math.toRadians(rotation), targetXPosPx + (lineWidth / 2), targetYPosPx + (strHeight / 2));
+                }
+
+                // @NOTE the bars sit where the font wants them, centered on its own (much thinner) bars
+                final LineMetrics metrics = font.getLineMetrics(line, frc);
+                final float x = (int) targetXPosPx;
+                underlines[i]     = new Rectangle2D.Float(x, baselines[i] + metrics.getUnderlineOffset() + (metrics.getUnderlineThickness() / 2) - (barHeight / 2), lineWidth, barHeight);
+                strikeThroughs[i] = new Rectangle2D.Float(x, baselines[i] + metrics.getStrikethroughOffset() + (metrics.getStrikethroughThickness() / 2) - (barHeight / 2), lineWidth, barHeight);
             }
         }
     }
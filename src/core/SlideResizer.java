@@ -0,0 +1,115 @@
+//
+// Lays out the neighbours of the slide on display in the background.
+//
+// Resizing every slide of a slideshow inside a single frame froze the window for as long as that
+// took (seconds for a few hundred slides with images) and it did so again on every step while
+// dragging the window edge. Only the slide on display is resized right away now; the few slides
+// around it are resized here so flipping to them is instant, and every other slide stays stale
+// until it gets close to being shown.
+//
+// The number of neighbours on each side can be set with -Dkagami.resize_ahead=<n>.
+//
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+public final class SlideResizer {
+
+    private static final int RANGE = Math.max(0, Integer.getInteger("kagami.resize_ahead", 2));
+
+    // @NOTE Text fitting and image scaling are cpu bound; two workers keep both neighbours of the current slide busy
+    // without taking the whole machine away from the render thread.
+    private static final int WORKER_COUNT = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final AtomicInteger workerId = new AtomicInteger(0);
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKER_COUNT, (runnable) -> {
+        final Thread thread = new Thread(runnable, "slide_resize_thread_" + workerId.getAndIncrement());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1); // @NOTE never get in the way of the main loop
+        return thread;
+    });
+
+    // @NOTE What the render thread draws with, captured on every prefetch(). Anything laid out with it measures text
+    // exactly like the render thread would.
+    private static final record LayoutRec(RenderingHints hints, AffineTransform transform, BufferedImage scratch, int width, int height) {}
+
+    private volatile LayoutRec layout = null;
+
+    // @NOTE Bumped by every prefetch(). Jobs of an older generation have been asked for a size or a slideshow that is
+    // not shown anymore and quit without doing anything.
+    private volatile long generation = 0;
+
+    // @NOTE Must be called from the thread rendering into 'g'. Metrics are taken from an offscreen copy of it, so the
+    // fitted fonts come out the same as if the slides had been resized with 'g' itself.
+    public void prefetch(final Graphics2D g, final Slide[] slideshow, final int slideIndex, final int width, final int height) {
+        assert g         != null;
+        assert slideshow != null;
+
+        final long gen = ++generation;
+
+        LayoutRec layout = this.layout;
+        if (layout == null || layout.width() != width || layout.height() != height || !layout.transform().equals(g.getTransform())) {
+            final GraphicsConfiguration gfxConfig = g.getDeviceConfiguration();
+            layout = new LayoutRec(g.getRenderingHints(), g.getTransform(), gfxConfig.createCompatibleImage(1, 1), width, height); // @NOTE copies; e.g. the scale of a HiDPI screen
+            this.layout = layout;
+        }
+
+        final LayoutRec target = layout;
+        for (int distance = 1; distance <= RANGE; ++distance) {
+            for (final int i : new int[] { slideIndex + distance, slideIndex - distance }) { // @NOTE ahead first; that is where we usually go
+                if (i < 0 || i >= slideshow.length || slideshow[i].isResizedFor(width, height)) {
+                    continue;
+                }
+                final Slide slide = slideshow[i];
+                workers.execute(() -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    resize(target, slide);
+                });
+            }
+        }
+    }
+
+    // @NOTE Lays out the slide at 'slideIndex' and its neighbours right away on the calling thread, for the size the
+    // render thread has last drawn with. Does nothing if nothing has been drawn yet.
+    public void layout(final Slide[] slideshow, final int slideIndex) {
+        assert slideshow != null;
+
+        final LayoutRec layout = this.layout;
+        if (layout == null) {
+            return;
+        }
+        for (int i = Math.max(0, slideIndex - RANGE), l = Math.min(slideshow.length - 1, slideIndex + RANGE); i <= l; ++i) {
+            resize(layout, slideshow[i]);
+        }
+    }
+
+    // @NOTE Ranges over the same slides layout() lays out.
+    public int range() {
+        return RANGE;
+    }
+
+    private void resize(final LayoutRec layout, final Slide slide) {
+        final Graphics2D sg = layout.scratch().createGraphics();
+        try {
+            sg.setRenderingHints(layout.hints());
+            sg.setTransform(layout.transform());
+            slide.ensureResized(sg, layout.width(), layout.height());
+        } catch (final AssertionError aerror) {
+            Main.handleAssert(aerror);
+        } catch (final RuntimeException ex) {
+            Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+        } finally {
+            sg.dispose();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+//
+// Compiled form of a parsed slideshow which lives next to the .kagami file.
+//
+// Layout (big endian):
+//
+//     int    magic
+//     int    format version
+//     string kagami version
+//     long   hash of the source text
+//     string metadata line
+//     int    slide count
+//     slide count times:
+//         long  fingerprint of the slide block
+//         slide (see Slide#write)
+//
+// Strings are written as an int byte length followed by the UTF-8 bytes.
+//
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class SlideShowCache {
+
+    private static final int MAGIC   = 0x4B474D43; // @NOTE "KGMC"
+    private static final int VERSION = 2;          // @NOTE bump whenever the layout changes
+
+    private final Path file;
+
+    public SlideShowCache(final File slideshowFile) {
+        assert slideshowFile != null;
+
+        this.file = Path.of(slideshowFile.getAbsolutePath() + ".cache");
+    }
+
+    public final class StaleCacheException extends Exception {
+        private static final long serialVersionUID = 1L; // @NOTE *sigh*
+
+        public StaleCacheException(final String str, final Object... args) {
+            super(String.format(str, args));
+        }
+    }
+
+    // @NOTE Fails with a StaleCacheException if there is no cache or it has been made from a different source text or
+    // Kagami version. In that case the caller is expected to parse the text and write() a new one. The metadata is
+    // parsed with 'parser' from the line kept in the cache, so a hit never has to look at the source text.
+    public FResult<SlideShowFileParser.SlideShowRec> read(final long sourceHash, final SlideShowFileParser parser) {
+        assert parser != null;
+
+        if (!Files.isRegularFile(file)) {
+            return new FResult<>(null, new StaleCacheException("There is no compiled slideshow yet"));
+        }
+
+        Slide[] slides = new Slide[0];
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // @NOTE Check the header with a small read first, so a stale cache costs next to nothing.
+            final ByteBuffer header = ByteBuffer.allocate(1024);
+            channel.read(header, 0);
+            header.flip();
+            final int headerSize = checkHeader(header, sourceHash);
+            if (headerSize == -1) {
+                return new FResult<>(null, new StaleCacheException("The compiled slideshow is out of date"));
+            }
+
+            // @NOTE Copied into the heap rather than mapped. A mapping stays alive until the garbage collector gets
+            // around to it, and some platforms (Windows) do not let write() replace a file while it is still mapped.
+            final ByteBuffer in = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (in.hasRemaining()) {
+                if (channel.read(in) == -1) {
+                    throw new IOException("The compiled slideshow got shorter while reading it");
+                }
+            }
+            in.flip();
+            in.position(headerSize);
+
+            final SlideShowFileParser.SlideShowMetaDataRec metaData = parser.parseMetaData(readString(in));
+
+            slides                     = new Slide[in.getInt()];
+            final long[] fingerprints  = new long[slides.length];
+            for (int i = 0; i < slides.length; ++i) {
+                fingerprints[i] = in.getLong();
+                slides[i]       = Slide.read(in);
+            }
+            return new FResult<>(new SlideShowFileParser.SlideShowRec(metaData, slides, fingerprints, null), null);
+        } catch (final IOException ex) {
+            destroyAll(slides);
+            return new FResult<>(null, ex);
+        } catch (final SlideShowFileParser.ParseException ex) {
+            destroyAll(slides);
+            return new FResult<>(null, new StaleCacheException("The compiled slideshow has invalid metadata (%s)", ex.getMessage()));
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | ArithmeticException ex) {
+            destroyAll(slides);
+            return new FResult<>(null, new StaleCacheException("The compiled slideshow is corrupt (%s)", ex.toString()));
+        }
+    }
+
+    // @NOTE hands back the images of the slides we managed to read before failing
+    private void destroyAll(final Slide[] slides) {
+        for (final Slide slide : slides) {
+            if (slide != null) {
+                slide.destroy();
+            }
+        }
+    }
+
+    // @NOTE returns the size of the header or -1 if it does not match
+    private int checkHeader(final ByteBuffer in, final long sourceHash) {
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                return -1;
+            }
+            if (!readString(in).equals(Main.VERSION) || in.getLong() != sourceHash) {
+                return -1;
+            }
+            return in.position();
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    public FResult<Void> write(final long sourceHash, final String metaLine, final SlideShowFileParser.SlideShowRec slideshow) {
+        assert metaLine  != null;
+        assert slideshow != null;
+
+        final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(memory)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, Main.VERSION);
+            out.writeLong(sourceHash);
+            writeString(out, metaLine);
+            out.writeInt(slideshow.slides().length);
+            for (int i = 0; i < slideshow.slides().length; ++i) {
+                out.writeLong(slideshow.fingerprints()[i]);
+                slideshow.slides()[i].write(out);
+            }
+        } catch (final IOException ex) {
+            return new FResult<>(null, ex);
+        }
+
+        // @NOTE write to a temporary file first so that a crash can never leave a half written cache behind
+        final Path tmp = Path.of(file.toString() + ".tmp");
+        final FResult<java.io.FileOutputStream> handleResult = SFile.openFileForWriting(tmp.toString());
+        if (handleResult.failed) {
+            return new FResult<>(null, handleResult.error);
+        }
+        final FResult<Void> writeResult = SFile.write(handleResult.data, memory.toByteArray());
+        SFile.close(handleResult.data);
+        if (writeResult.failed) {
+            return writeResult;
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new FResult<>(null, null);
+        } catch (final IOException ex) {
+            return new FResult<>(null, ex);
+        }
+    }
+
+    public static void writeString(final DataOutputStream out, final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(final ByteBuffer in) {
+        final int length = in.getInt();
+        final String str = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return str;
+    }
+}
@@ -1,4 +1,3 @@
-import java.awt.Canvas;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
@@ -6,49 +5,100 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import javax.imageio.ImageIO;
 
 public final class SlideShowExporter {
 
-    private final Canvas canvas;
+    private final int width;
+    private final int height;
     private final HashMap<RenderingHints.Key, Object> renderingHints;
     private final Slide[] slideshow;
     private final String dst;
+    private final Lambdas.Binary<?, Integer, Integer> progress;
 
-    public SlideShowExporter(final Canvas canvas, final HashMap<RenderingHints.Key, Object> renderingHints, final Slide[] slideshow, final String dst) {
-        assert canvas          != null;
+    // @NOTE 'progress' is called before every slide with the number of slides done so far and the total
+    public SlideShowExporter(final int width, final int height, final HashMap<RenderingHints.Key, Object> renderingHints, final Slide[] slideshow, final String dst, final Lambdas.Binary<?, Integer, Integer> progress) {
+        assert width > 0 && height > 0;
         assert renderingHints  != null;
         assert slideshow       != null;
         assert dst             != null;
+        assert progress        != null;
 
-        this.canvas         = canvas;
+        this.width          = width;
+        this.height         = height;
         this.renderingHints = renderingHints;
         this.slideshow      = slideshow;
         this.dst            = dst;
+        this.progress       = progress;
+    }
+
+    private static boolean awaitReady(final Slide slide, final int index) throws InterruptedException {
+        try {
+            slide.whenReady().get();
+            return true;
+        } catch (final ExecutionException ex) {
+            Main.logger.log(Level.SEVERE, String.format("Not exporting slide %s, one of its images failed to load", index + 1), ex.getCause());
+            return false;
+        }
     }
 
     public boolean export() {
         final File dstDir = new File(dst);
         dstDir.mkdirs();
 
+        final boolean[] exported = new boolean[slideshow.length];
         for (int i = 0; i < slideshow.length; ++i) {
-            final BufferedImage slideImage = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            progress.call(i, slideshow.length);
+
+            // @NOTE Laid out on a copy; laying out the slide itself for the export's graphics would leave it with fonts
+            // measured and images scaled for an offscreen image, and the screen would keep using that layout.
+            final Slide slide;
+            try {
+                slide = slideshow[i].copy();
+            } catch (final IOException ex) {
+                Main.logger.log(Level.SEVERE, String.format("Not exporting slide %s: %s", i + 1, ex.getMessage()), ex);
+                continue;
+            }
+
+            final BufferedImage slideImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
             final Graphics2D g = slideImage.createGraphics();
             g.setRenderingHints(renderingHints);
-            slideshow[i].render(g);
+            try {
+                // @NOTE Images are decoded and scaled in the background and a slide is drawn without them until they
+                // are done.
+                if (!awaitReady(slide, i)) {
+                    continue;
+                }
+                slide.onResize(g, width, height);
+                if (!awaitReady(slide, i)) { // @NOTE scaled to the export size
+                    continue;
+                }
+                slide.renderOnce(g);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                g.dispose();
+                slide.destroy();
+            }
             try {
                 ImageIO.write(slideImage, "png", new File("export/slide_" + (i + 1) + ".png"));
             } catch (final IOException ex) {
                 Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
                 return false;
             }
+            exported[i] = true;
         }
         final FResult<FileOutputStream> handleResult = SFile.openFileForWriting("export/slideshow.html");
         if (handleResult.success) {
             final FileOutputStream handle = handleResult.data;
             final StringBuilder htmlImageTags = new StringBuilder();
             for (int i = 0; i < slideshow.length; ++i) {
+                if (!exported[i]) {
+                    continue;
+                }
                 final String slideName = "slide_" + (i + 1) + ".png";
                 htmlImageTags.append("<div>\n");
                 htmlImageTags.append(String.format("<img src=\"%s\"", slideName)).append("\n"); // @TODO: size
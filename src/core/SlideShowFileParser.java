@@ -3,16 +3,16 @@ import java.awt.DisplayMode;
 import java.awt.Font;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
-import java.awt.Image;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
-import javax.imageio.ImageIO;
 
 public final class SlideShowFileParser {
 
@@ -27,11 +27,47 @@ public final class SlideShowFileParser {
     public final class ParseException extends Exception {
         private static final long serialVersionUID = 1L; // @NOTE *sigh*
 
-        public ParseException(final String str, final Object... args) {
-            super(String.format(str, args));
+        public final int line;   // @NOTE 1 based, 0 if the error does not belong to a line (e.g. the file can not be read)
+        public final int column; // @NOTE 1 based, 0 if the error does not belong to a line
+
+        private final ParseException[] errors;
+
+        public ParseException(final int line, final int column, final String str, final Object... args) {
+            super(line == 0 ? String.format(str, args) : String.format("Error on line %s, column %s: %s", line, column, String.format(str, args)));
+            this.line   = line;
+            this.column = column;
+            this.errors = new ParseException[] { this };
+        }
+
+        // @NOTE Bundles every error found in one pass (in file order). The exception itself reports the first one,
+        // its message lists all of them.
+        public ParseException(final ParseException[] errors) {
+            super(joinMessages(errors));
+            assert errors.length > 0;
+
+            this.line   = errors[0].line;
+            this.column = errors[0].column;
+            this.errors = errors;
+        }
+
+        public ParseException[] getErrors() {
+            return errors;
         }
     }
 
+    private static String joinMessages(final ParseException[] errors) {
+        if (errors.length == 1) {
+            return errors[0].getMessage();
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Found %s errors:", errors.length));
+        for (final ParseException error : errors) {
+            builder.append('\n').append(error.getMessage());
+        }
+        return builder.toString();
+    }
+
     public final record SlideShowMetaDataRec(int hz, float aspectRatio) {}
 
     private final class Cursor {
@@ -44,6 +80,11 @@ public final class SlideShowFileParser {
             this.limit = limit;
         }
 
+        public Cursor(final int val, final int limit) {
+            this.val   = val;
+            this.limit = limit;
+        }
+
         public void unwind() {
             if (val > 0) {
                 val -= 1;
@@ -60,202 +101,413 @@ public final class SlideShowFileParser {
     }
 
 
-    public SlideShowMetaDataRec parseMetaData() throws ParseException {
-        final StringBuilder fileContent = new StringBuilder();
-        final boolean success = readFileIntoMemory(fileContent);
-        if (!success) {
-            throw new ParseException("Failed to read '%s'\n", file.getAbsolutePath());
-        }
+    // @NOTE 'fingerprints' runs parallel to 'slides' and identifies the source text each slide has been built from.
+    // 'lexer' is null if the slides have been loaded from the compiled slideshow.
+    public final record SlideShowRec(SlideShowMetaDataRec metaData, Slide[] slides, long[] fingerprints, SlideShowLexer lexer) {}
 
-        final String[] lines = fileContent.toString().split("\n");
-        final String metaLine = lines[0].strip();
+    // @NOTE one '[name]' block; the slide decl is on line 'header' and the body goes up to (excluding) line 'end'
+    private final record SlideBlockRec(int header, int end, long fingerprint) {}
 
-        if (isHeader(metaLine)) {
-            final String meta = metaLine.substring(metaLine.indexOf("(") + 1, metaLine.indexOf(")"));
-            final String[] metaData = meta.split(";");
-            if (metaData.length != 2) {
-                throw new ParseException("Error on line %s: You either have to few or too many arguments for the metadata!", 1);
-            }
+    // @NOTE metadata of the most recent call to parse(), even if parsing the slides failed afterwards.
+    // That way the caller is still able to bring up the display and report the error there.
+    private volatile SlideShowMetaDataRec metaData = null;
 
-            int hz = 0;
-            try {
-                hz = Integer.parseInt(metaData[0]);
-                if (hz != 0 && hz != 20 && hz != 30 && hz != 60 && hz != 80 && hz != 120 && hz != 144) {
-                    throw new ParseException("Error on line %s: The refresh rate of your slideshow can only be a value of either 0 (monitor refresh rate), 20, 30, 60, 80, 120 or 144!", 1);
-                }
-                if (hz == 0) {
-                    final GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
-                    final GraphicsDevice dev      = env.getDefaultScreenDevice();
-                    final int monitorHz           = dev.getDisplayMode().getRefreshRate();
-                    if (monitorHz == DisplayMode.REFRESH_RATE_UNKNOWN) {
-                        Main.logger.log(Level.WARNING, "Monitor refresh rate is not known");
-                        hz = 30; // @NOTE I think this is a reasonable default
-                    } else {
-                        hz = monitorHz;
-                    }
-                }
-            } catch (final NumberFormatException ex) {
-                throw new ParseException("Error on line %s: First meta item must be the refresh rate of your slideshow!", 1);
-            }
+    public SlideShowMetaDataRec getMetaData() {
+        return metaData;
+    }
+
+    public SlideShowRec parse() throws ParseException {
+        return parse(null, null);
+    }
+
+    public SlideShowRec parse(final SlideShowRec previous) throws ParseException {
+        return parse(previous, null);
+    }
+
+    // @NOTE Slides of 'previous' whose source text did not change are taken over as they are (including their resized
+    // state), so only the blocks that have been edited need to be built again. If a 'cache' is given and it has been
+    // compiled from the exact same text, the slides are loaded from there instead of being parsed at all.
+    // Both may be null.
+    public SlideShowRec parse(final SlideShowRec previous, final SlideShowCache cache) throws ParseException {
+        final String fileContent = readFileIntoMemory();
+        if (fileContent == null) {
+            throw new ParseException(0, 0, "Failed to read '%s'", file.getAbsolutePath());
+        }
 
-            final String aspectRatio = metaData[1];
-            if (aspectRatio.equals("FILL")) {
-                Main.logger.log(Level.INFO, String.format("Parsed aspect ratio: %s", "FILL"));
-                return new SlideShowMetaDataRec(hz, -1);
+        // @NOTE Hash the raw text before lexing anything; if the compiled slideshow has been made from the exact same
+        // text, the text is never looked at again (the cache keeps the metadata line as well).
+        final long sourceHash = SlideShowLexer.fingerprint(fileContent);
+        if (cache != null) {
+            final FResult<SlideShowRec> cacheResult = cache.read(sourceHash, this);
+            if (cacheResult.success) {
+                metaData = cacheResult.data.metaData();
+                Main.logger.log(Level.INFO, String.format("Loaded %s slides from the compiled slideshow", cacheResult.data.slides().length));
+                return cacheResult.data;
             }
+            Main.logger.log(Level.INFO, "Not using the compiled slideshow: " + cacheResult.error.getMessage());
+        }
+
+        // @NOTE read and lex the file exactly once; both the metadata and the slides work on the same line table
+        final SlideShowLexer lexer = new SlideShowLexer(fileContent);
+        metaData = parseMetaData(lexer);
 
-            final String[] xy = aspectRatio.split(":");
-            if (xy.length != 2) {
-                throw new ParseException("Error on line %s: Invalid aspect ration format! Must be x:y or 'FILL'!", 1);
+        final ArrayList<SlideBlockRec> blocks = scanSlideBlocks(lexer);
+        final Slide[] slides = parseSlides(lexer, blocks, previous);
+
+        final long[] fingerprints = new long[blocks.size()];
+        for (int i = 0; i < fingerprints.length; ++i) {
+            fingerprints[i] = blocks.get(i).fingerprint();
+        }
+        final SlideShowRec slideshow = new SlideShowRec(metaData, slides, fingerprints, lexer);
+
+        if (cache != null) {
+            final FResult<Void> writeResult = cache.write(sourceHash, lexer.line(0), slideshow);
+            if (writeResult.failed) {
+                Main.logger.log(Level.WARNING, "Failed to write the compiled slideshow: " + writeResult.error.getMessage(), writeResult.error);
             }
-            final float x = parseInteger(xy[0], 1);
-            final float y = parseInteger(xy[1], 1);
-            Main.logger.log(Level.INFO, String.format("Parsed aspect ratio: %s", x / y));
+        }
+        return slideshow;
+    }
+
+    private SlideShowMetaDataRec parseMetaData(final SlideShowLexer lexer) throws ParseException {
+        assert lexer != null;
 
-            return new SlideShowMetaDataRec(hz, x / y);
+        if (lexer.isHeader(0)) {
+            return parseMetaData(lexer.line(0));
         }
 
-        throw new ParseException("Error on line %s: Your first line must be the metadata!", 1);
+        throw new ParseException(1, 1, "Your first line must be the metadata!");
     }
 
-    public Slide[] parseSlides() throws ParseException {
-        final StringBuilder fileContent = new StringBuilder();
-        final boolean success = readFileIntoMemory(fileContent);
-        if (!success) {
-            throw new ParseException("Failed to read '%s'\n", file.getAbsolutePath());
+    // @NOTE 'metaLine' is the stripped first line of a slideshow. Also used by the SlideShowCache, which only keeps that
+    // line; a refresh rate of 0 has to be looked up on the monitor we are running on now, not the one it was compiled on.
+    public SlideShowMetaDataRec parseMetaData(final String metaLine) throws ParseException {
+        assert metaLine != null;
+
+        final String meta = metaLine.substring(metaLine.indexOf("(") + 1, metaLine.indexOf(")"));
+        final String[] metaData = meta.split(";");
+        if (metaData.length != 2) {
+            throw new ParseException(1, 1, "You either have to few or too many arguments for the metadata!");
+        }
+
+        int hz = 0;
+        try {
+            hz = Integer.parseInt(metaData[0]);
+            if (hz != 0 && hz != 20 && hz != 30 && hz != 60 && hz != 80 && hz != 120 && hz != 144) {
+                throw new ParseException(1, 1, "The refresh rate of your slideshow can only be a value of either 0 (monitor refresh rate), 20, 30, 60, 80, 120 or 144!");
+            }
+            if (hz == 0) {
+                final GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
+                final GraphicsDevice dev      = env.getDefaultScreenDevice();
+                final int monitorHz           = dev.getDisplayMode().getRefreshRate();
+                if (monitorHz == DisplayMode.REFRESH_RATE_UNKNOWN) {
+                    Main.logger.log(Level.WARNING, "Monitor refresh rate is not known");
+                    hz = 30; // @NOTE I think this is a reasonable default
+                } else {
+                    hz = monitorHz;
+                }
+            }
+        } catch (final NumberFormatException ex) {
+            throw new ParseException(1, 1, "First meta item must be the refresh rate of your slideshow!");
         }
-        final ArrayList<Slide> slideshow   = new ArrayList<>();
-        final ArrayList<String> slideNames = new ArrayList<>();
 
-        final String[] lines = fileContent.toString().split("\n");
-        final Cursor cursor = new Cursor(lines.length - 1);
+        final String aspectRatio = metaData[1];
+        if (aspectRatio.equals("FILL")) {
+            Main.logger.log(Level.INFO, String.format("Parsed aspect ratio: %s", "FILL"));
+            return new SlideShowMetaDataRec(hz, -1);
+        }
+
+        final String[] xy = aspectRatio.split(":");
+        if (xy.length != 2) {
+            throw new ParseException(1, 1, "Invalid aspect ration format! Must be x:y or 'FILL'!");
+        }
+        final float x = parseInteger(xy[0], 1);
+        final float y = parseInteger(xy[1], 1);
+        Main.logger.log(Level.INFO, String.format("Parsed aspect ratio: %s", x / y));
+
+        return new SlideShowMetaDataRec(hz, x / y);
+    }
+
+    // @NOTE Only finds the boundaries of the slides. Validating the slide decls is left to parseSlides() so that errors
+    // are still reported in the order they appear in the file.
+    private ArrayList<SlideBlockRec> scanSlideBlocks(final SlideShowLexer lexer) {
+        assert lexer != null;
+
+        final ArrayList<SlideBlockRec> blocks = new ArrayList<>();
+
+        final Cursor cursor = new Cursor(lexer.lineCount() - 1);
         while (cursor.advance()) {
-            final String line = lines[cursor.val].strip();
+            final int line = cursor.val;
 
-            if (isHeader(line)) {
+            if (lexer.isHeader(line)) {
                 continue;
             }
-            if (isComment(line)) {
+            if (lexer.isComment(line)) {
                 continue;
             }
-            if (isEmptyLine(line)) {
+            if (lexer.isEmpty(line)) {
                 continue;
             }
 
-            final String slideName = requireSlideDecl(line, cursor);
-            slideNames.add(slideName);
-            final Slide slide = parseSlideDecl(slideName, lines, cursor);
-            slideshow.add(slide);
+            // @NOTE the body of a slide ends right before the next slide decl (or EOF)
+            int end = line + 1;
+            while (end < lexer.lineCount() && !lexer.startsWith(end, '[')) {
+                end += 1;
+            }
+            blocks.add(new SlideBlockRec(line, end, lexer.fingerprint(line, end - 1)));
+            cursor.val = end - 1;
+        }
+
+        return blocks;
+    }
+
+    private Slide[] parseSlides(final SlideShowLexer lexer, final ArrayList<SlideBlockRec> blocks, final SlideShowRec previous) throws ParseException {
+        assert lexer  != null;
+        assert blocks != null;
+
+        final HashMap<Long, Slide> reusable = new HashMap<>();
+        if (previous != null) {
+            for (int i = 0; i < previous.slides().length; ++i) {
+                reusable.put(previous.fingerprints()[i], previous.slides()[i]);
+            }
+        }
+
+        final int count = blocks.size();
+        final Slide[] slides             = new Slide[count];
+        final String[] names             = new String[count];
+        final ParseException[][] errors  = new ParseException[count][];
+
+        int reused = 0;
+        final boolean[] wasReused = new boolean[count];
+        for (int i = 0; i < count; ++i) {
+            slides[i] = reusable.remove(blocks.get(i).fingerprint()); // @NOTE remove so that a slide can never be used twice
+            if (slides[i] != null) {
+                wasReused[i] = true;
+                reused += 1;
+            }
+        }
+
+        // @NOTE The blocks are independent of each other, so we can build them all at once. Every block only ever
+        // writes to its own index, hence the results (and errors) end up in file order no matter which thread was faster.
+        ForkJoinPool.commonPool().invoke(new SlideBlockTask(lexer, blocks, 0, count, slides, names, errors));
+
+        final ArrayList<ParseException> allErrors = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            if (errors[i] != null) {
+                allErrors.addAll(Arrays.asList(errors[i]));
+            }
+        }
+        collectDuplicateSlideNames(lexer, blocks, names, allErrors);
+
+        if (!allErrors.isEmpty()) {
+            for (int i = 0; i < count; ++i) {
+                if (slides[i] != null && !wasReused[i]) {
+                    slides[i].destroy(); // @NOTE hand back the images of everything we have built for nothing
+                }
+            }
+            allErrors.sort(Comparator.comparingInt((e) -> e.line)); // @NOTE stable, so errors on the same line keep their order
+            throw new ParseException(allErrors.toArray(ParseException[]::new));
+        }
+
+        Main.logger.log(Level.INFO, String.format("Parsed %s slides (%s reused)", count - reused, reused));
+        return slides;
+    }
+
+    private final class SlideBlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // @NOTE *sigh*
+
+        private static final int THRESHOLD = 4; // @NOTE amount of blocks which are not worth splitting any further
+
+        private final SlideShowLexer lexer;
+        private final ArrayList<SlideBlockRec> blocks;
+        private final int from;
+        private final int to;
+        private final Slide[] slides;
+        private final String[] names;
+        private final ParseException[][] errors;
+
+        public SlideBlockTask(final SlideShowLexer lexer, final ArrayList<SlideBlockRec> blocks, final int from, final int to, final Slide[] slides, final String[] names, final ParseException[][] errors) {
+            this.lexer  = lexer;
+            this.blocks = blocks;
+            this.from   = from;
+            this.to     = to;
+            this.slides = slides;
+            this.names  = names;
+            this.errors = errors;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; ++i) {
+                    parseBlock(i);
+                }
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new SlideBlockTask(lexer, blocks, from, mid, slides, names, errors), new SlideBlockTask(lexer, blocks, mid, to, slides, names, errors));
         }
 
-        errorOnDuplicateSlideNames(slideNames);
+        private void parseBlock(final int i) {
+            final SlideBlockRec block = blocks.get(i);
+            final Cursor cursor = new Cursor(block.header(), block.end() - 1);
+            final ArrayList<ParseException> blockErrors = new ArrayList<>();
+            try {
+                names[i] = requireSlideDecl(lexer, cursor);
+                if (slides[i] == null) { // @NOTE not reused from the previous slideshow
+                    slides[i] = parseSlideDecl(names[i], lexer, cursor, blockErrors);
+                }
+            } catch (final ParseException ex) {
+                blockErrors.add(ex); // @NOTE without a valid decl there is nothing to recover; skip the whole block
+            }
+            if (!blockErrors.isEmpty()) {
+                errors[i] = blockErrors.toArray(ParseException[]::new);
+            }
+        }
+    }
 
-        return slideshow.toArray(Slide[]::new);
+    private void collectDuplicateSlideNames(final SlideShowLexer lexer, final ArrayList<SlideBlockRec> blocks, final String[] names, final ArrayList<ParseException> errors) {
+        final HashSet<String> set = new HashSet<>();
+        for (int i = 0; i < names.length; ++i) {
+            if (names[i] != null && !set.add(names[i])) {
+                final int line = blocks.get(i).header();
+                errors.add(new ParseException(line + 1, lexer.column(lexer.lineStart(line)), "The slide name '%s' is already taken; duplicate slide names are illegal!", names[i]));
+            }
+        }
     }
 
-    private void errorOnDuplicateSlideNames(final ArrayList<String> slideNames) throws ParseException {
-        final HashSet<String> set = new HashSet<>(slideNames);
-        if (set.size() < slideNames.size()) {
-            throw new ParseException("You have duplicate slide names in your slideshow which is illegal!");
+    // @NOTE errors are always reported for the line the cursor is on; 'offset' points to the offending part of it
+    private ParseException error(final SlideShowLexer lexer, final Cursor cursor, final int offset, final String str, final Object... args) {
+        return new ParseException(cursor.val + 1, lexer.column(offset), str, args);
+    }
+
+    // @NOTE Skips ahead to the next element or slide decl, so that one broken line does not drag the rest of its element
+    // down with it and we can keep on looking for further errors from a well defined point.
+    private void recover(final SlideShowLexer lexer, final Cursor cursor) {
+        while (cursor.advance()) {
+            if (lexer.startsWith(cursor.val, '{') || lexer.startsWith(cursor.val, '[')) {
+                cursor.unwind();
+                return;
+            }
         }
     }
 
-    private Slide parseSlideDecl(final String slideName, final String[] lines, final Cursor cursor) throws ParseException {
+    // @NOTE Does not throw; every error is added to 'errors' and parsing goes on after recover(). The returned slide is
+    // only meant to be used if no error has been added.
+    private Slide parseSlideDecl(final String slideName, final SlideShowLexer lexer, final Cursor cursor, final ArrayList<ParseException> errors) {
         assert slideName != null;
-        assert lines     != null;
+        assert lexer     != null;
         assert cursor    != null;
+        assert errors    != null;
 
         final Slide.Argb argb = new Slide.Argb();
         Slide.AudioRec audio = null; // @NOTE null means play NO audio (which is fine)
         final ArrayList<Slide.Element> elements = new ArrayList<>();
 
         while (cursor.advance()) {
-            final String line = lines[cursor.val].strip();
-            if (isComment(line)) {
+            final int line = cursor.val;
+            if (lexer.isComment(line)) {
                 continue;
             }
-            if (isEmptyLine(line)) {
+            if (lexer.isEmpty(line)) {
                 continue;
             }
 
-            if (line.startsWith("[")) { // @NOTE probably another slide decl
+            if (lexer.startsWith(line, '[')) { // @NOTE probably another slide decl
                 cursor.unwind();
                 return new Slide(slideName, argb, audio, elements.toArray(Slide.Element[]::new));  // @NOTE break to main loop
             }
 
-            if (isConfig(line)) {
-                final String key = line.split("=")[0];
-                final String val = line.split("=")[1];
-                switch (key.toUpperCase()) {
-                    case "COLOR": {
-                        parsePossibleGradient(argb, val, cursor);
-                    } break;
-
-                    case "AUDIO": {
-                        final String[] args = val.split(";");
-                        if (args.length != 4) {
-                            throw new ParseException("Error on line %s: Too few/many arguments for audio configuration!", cursor.val + 1);
-                        }
-
-                        final File file = new File(args[0]);
-                        if (file.exists() && !file.isDirectory()) {
-                            // @NOTE do nothing, we are good
-                        } else {
-                            throw new ParseException("Error on line %s: Audio file does not exist!", cursor.val + 1);
+            try {
+                if (lexer.isConfig(line)) {
+                    final int start = lexer.valueStart(line);
+                    switch (lexer.key(line, "COLOR", "AUDIO")) {
+                        case "COLOR": {
+                            parsePossibleGradient(argb, lexer, start, lexer.valueEnd(line), cursor);
+                        } break;
+
+                        case "AUDIO": {
+                            final int end = lexer.trimTrailing(';', start, lexer.valueEnd(line));
+                            if (lexer.count(';', start, end) != 3) {
+                                throw error(lexer, cursor, start, "Too few/many arguments for audio configuration!");
+                            }
+
+                            final int fileEnd    = lexer.fieldEnd(';', start, end);
+                            final int decibelEnd = lexer.fieldEnd(';', fileEnd + 1, end);
+                            final int loopEnd    = lexer.fieldEnd(';', decibelEnd + 1, end);
+
+                            final String sfile = lexer.getSource().substring(start, fileEnd);
+                            final File file = new File(sfile);
+                            if (file.exists() && !file.isDirectory()) {
+                                // @NOTE do nothing, we are good
+                            } else {
+                                throw error(lexer, cursor, start, "Audio file does not exist!");
+                            }
+
+                            final float decibel = parseInteger(lexer, fileEnd + 1, decibelEnd, cursor);
+                            final boolean loop  = parseBoolean(lexer, decibelEnd + 1, loopEnd, cursor);
+                            final boolean carry = parseBoolean(lexer, loopEnd + 1, end, cursor);
+
+                            audio = new Slide.AudioRec(sfile, decibel, loop, carry);
+                        } break;
+
+                        default: {
+                            throw error(lexer, cursor, lexer.keyStart(line), "Unknown slide configuration name!");
                         }
-
-                        final String sfile   = args[0];
-                        final float decibel = parseInteger(args[1], cursor);
-                        final boolean loop  = parseBoolean(args[2], cursor);
-                        final boolean carry = parseBoolean(args[3], cursor);
-
-                        audio = new Slide.AudioRec(sfile, decibel, loop, carry);
-                    } break;
-
-                    default: {
-                        throw new ParseException("Error on line %s: Unknown slide configuration name!", cursor.val + 1);
                     }
+                    continue;
                 }
-                continue;
-            }
 
-            final String type = requireSlideElement(line, cursor);
-            final Slide.Element element = parseSlideElement(lines, type, cursor);
-            elements.add(element);
+                final String type = requireSlideElement(lexer, cursor);
+                final Slide.Element element = parseSlideElement(lexer, type, cursor);
+                elements.add(element);
+            } catch (final ParseException ex) {
+                errors.add(ex);
+                recover(lexer, cursor);
+            }
         }
 
         // @NOTE EOF
         return new Slide(slideName, argb, audio, elements.toArray(Slide.Element[]::new));  // @NOTE break to main loop
     }
 
-    private void parsePossibleGradient(final Slide.Argb argb, final String val, final Cursor cursor) throws ParseException {
+    private void parsePossibleGradient(final Slide.Argb argb, final SlideShowLexer lexer, final int start, final int valueEnd, final Cursor cursor) throws ParseException {
         assert argb   != null;
-        assert val    != null;
+        assert lexer  != null;
         assert cursor != null;
 
-        final String[] gradient = val.split(";"); // @NOTE: Gradient
-        if (gradient.length == 1) {
-            argb.color1 = parseArgb(val, cursor);
-        } else if (gradient.length == 7) {
-            argb.color1 = parseArgb(gradient[0], cursor);
-            argb.color2 = parseArgb(gradient[1], cursor);
-
-            argb.x1 = parseFloat(gradient[2], cursor);
-            argb.y1 = parseFloat(gradient[3], cursor);
-            argb.x2 = parseFloat(gradient[4], cursor);
-            argb.y2 = parseFloat(gradient[5], cursor);
-            argb.cyclic = parseBoolean(gradient[6], cursor);
+        final int end = lexer.trimTrailing(';', start, valueEnd);
+        final int separators = lexer.count(';', start, end); // @NOTE: Gradient
+        if (separators == 0) {
+            argb.color1 = parseArgb(lexer, start, end, cursor);
+        } else if (separators == 6) {
+            final int color1End = lexer.fieldEnd(';', start, end);
+            final int color2End = lexer.fieldEnd(';', color1End + 1, end);
+            final int x1End     = lexer.fieldEnd(';', color2End + 1, end);
+            final int y1End     = lexer.fieldEnd(';', x1End + 1, end);
+            final int x2End     = lexer.fieldEnd(';', y1End + 1, end);
+            final int y2End     = lexer.fieldEnd(';', x2End + 1, end);
+
+            argb.color1 = parseArgb(lexer, start, color1End, cursor);
+            argb.color2 = parseArgb(lexer, color1End + 1, color2End, cursor);
+
+            argb.x1 = parseFloat(lexer, color2End + 1, x1End, cursor);
+            argb.y1 = parseFloat(lexer, x1End + 1, y1End, cursor);
+            argb.x2 = parseFloat(lexer, y1End + 1, x2End, cursor);
+            argb.y2 = parseFloat(lexer, x2End + 1, y2End, cursor);
+            argb.cyclic = parseBoolean(lexer, y2End + 1, end, cursor);
         } else {
-            throw new ParseException("Error on line %s: Invalid amount of arguments for gradient color specification!", cursor.val + 1);
+            throw error(lexer, cursor, start, "Invalid amount of arguments for gradient color specification!");
         }
     }
 
-    private Color parseArgb(final String str, final Cursor cursor) throws ParseException {
-        assert str    != null;
+    private Color parseArgb(final SlideShowLexer lexer, final int start, final int end, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
-        if (str.length() < 8) {
-            throw new ParseException("Error on line %s: Invalid color value!", cursor.val + 1);
+        if (end - start < 8) {
+            throw error(lexer, cursor, start, "Invalid color value!");
         }
 
         //
@@ -263,49 +515,34 @@ public final class SlideShowFileParser {
         // We have to check whether the last char is a semicolon.
         //
 
-        final char[] chars = str.toCharArray();
-
-        final String xr = chars[0] + "" + chars[1];
-        final String xg = chars[2] + "" + chars[3];
-        final String xb = chars[4] + "" + chars[5];
-        final String xa = chars[6] + "" + chars[7];
-
         try {
-
-            final int r = Integer.parseInt(xr, 16);
-            final int g = Integer.parseInt(xg, 16);
-            final int b = Integer.parseInt(xb, 16);
-            final int a = Integer.parseInt(xa, 16);
-
-            if (r < 0 || r > 255 || g < 0 || g > 255 || b < 0 || b > 255 || a < 0 || a > 255) {
-                throw new ParseException("Error on line %s: ARGB values out of range! Must be in between 0 - 255.", cursor.val + 1);
-            }
-            return new Color(r, g, b, a);
+            final int rgba = lexer.parseHexRgba(start);
+            return new Color(rgba >>> 24, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, rgba & 0xFF);
         } catch (final NumberFormatException ex) {
-            throw new ParseException("Error on line %s: Color values must be numeric decimal values.", cursor.val + 1);
+            throw error(lexer, cursor, start, "Color values must be numeric decimal values.");
         }
     }
 
-    private Slide.Element parseSlideElement(final String[] lines, final String type, final Cursor cursor) throws ParseException {
-        assert lines  != null;
+    private Slide.Element parseSlideElement(final SlideShowLexer lexer, final String type, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert type   != null;
         assert cursor != null;
 
         switch (type) {
             case "TEXT": {
-                return parseTextElement(lines, cursor);
+                return parseTextElement(lexer, cursor);
             }
 
             case "RECT": {
-                return parseFormElement(lines, cursor, Slide.Form.Type.RECT);
+                return parseFormElement(lexer, cursor, Slide.Form.Type.RECT);
             }
 
             case "OVAL": {
-                return parseFormElement(lines, cursor, Slide.Form.Type.OVAL);
+                return parseFormElement(lexer, cursor, Slide.Form.Type.OVAL);
             }
 
             case "IMAGE": {
-                return parseImageElement(lines, cursor);
+                return parseImageElement(lexer, cursor);
             }
 
             default: {
@@ -315,8 +552,8 @@ public final class SlideShowFileParser {
         }
     }
 
-    private Slide.Form parseFormElement(final String[] lines, final Cursor cursor, final Slide.Form.Type type) throws ParseException { assert lines  != null;
-        assert lines  != null;
+    private Slide.Form parseFormElement(final SlideShowLexer lexer, final Cursor cursor, final Slide.Form.Type type) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
         assert type   != null;
 
@@ -331,58 +568,56 @@ public final class SlideShowFileParser {
         final Slide.Argb borderColor = new Slide.Argb();
 
         while (cursor.advance()) {
-            final String line = lines[cursor.val].strip();
-            if (isComment(line)) {
+            final int line = cursor.val;
+            if (lexer.isComment(line)) {
                 continue;
             }
-            if (isEmptyLine(line)) {
+            if (lexer.isEmpty(line)) {
                 continue;
             }
 
-            if (!isConfig(line)) { // @NOTE probably another slide decl or element
+            if (!lexer.isConfig(line)) { // @NOTE probably another slide decl or element
                 cursor.unwind();
                 return new Slide.Form(type, color, x, y, w, h, rot, borderSize, borderColor);
             }
 
-            if (isConfig(line)) {
-                final String key   = line.split("=")[0];
-                final String value = line.split("=")[1];
-                switch (key.toUpperCase()) {
-                    case "COLOR": {
-                        parsePossibleGradient(color, value, cursor);
-                    } break;
+            final int start = lexer.valueStart(line);
+            final int end   = lexer.valueEnd(line);
+            switch (lexer.key(line, "COLOR", "X", "Y", "W", "H", "ROTATION", "BORDERSIZE", "BORDERCOLOR")) {
+                case "COLOR": {
+                    parsePossibleGradient(color, lexer, start, end, cursor);
+                } break;
 
-                    case "X": {
-                        x = parseFloat(value, cursor);
-                    } break;
+                case "X": {
+                    x = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "Y": {
-                        y = parseFloat(value, cursor);
-                    } break;
+                case "Y": {
+                    y = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "W": {
-                        w = parseFloat(value, cursor);
-                    } break;
+                case "W": {
+                    w = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "H": {
-                        h = parseFloat(value, cursor);
-                    } break;
+                case "H": {
+                    h = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "ROTATION": {
-                        rot = parseInteger(value, cursor);
-                    } break;
+                case "ROTATION": {
+                    rot = parseInteger(lexer, start, end, cursor);
+                } break;
 
-                    case "BORDERSIZE": {
-                        borderSize = parseFloat(value, cursor);
-                    } break;
+                case "BORDERSIZE": {
+                    borderSize = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "BORDERCOLOR": {
-                        parsePossibleGradient(borderColor, value, cursor);
-                    } break;
+                case "BORDERCOLOR": {
+                    parsePossibleGradient(borderColor, lexer, start, end, cursor);
+                } break;
 
-                    default: {
-                        throw new ParseException("Error on line %s: Unknown configuration name for an rect element!", cursor.val + 1);
-                    }
+                default: {
+                    throw error(lexer, cursor, lexer.keyStart(line), "Unknown configuration name for an rect element!");
                 }
             }
         }
@@ -391,12 +626,12 @@ public final class SlideShowFileParser {
         return new Slide.Form(type, color, x, y, w, h, rot, borderSize, borderColor);
     }
 
-    private Slide.Image parseImageElement(final String[] lines, final Cursor cursor) throws ParseException {
-        assert lines  != null;
+    private Slide.Image parseImageElement(final SlideShowLexer lexer, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
         // @NOTE default values
-        Image image = null;
+        String imageFile = null;
         float x    = 0.5f;
         float y    = 0.5f;
         float w    = 0.5f;
@@ -407,71 +642,69 @@ public final class SlideShowFileParser {
         final Slide.Argb borderColor = new Slide.Argb();
 
         while (cursor.advance()) {
-            final String line = lines[cursor.val].strip();
-            if (isComment(line)) {
+            final int line = cursor.val;
+            if (lexer.isComment(line)) {
                 continue;
             }
-            if (isEmptyLine(line)) {
+            if (lexer.isEmpty(line)) {
                 continue;
             }
 
-            if (!isConfig(line)) { // @NOTE probably another slide decl or element
+            if (!lexer.isConfig(line)) { // @NOTE probably another slide decl or element
                 cursor.unwind();
-                return new Slide.Image(image, x, y, w, h, alpha, rot, borderSize, borderColor);
+                return new Slide.Image(imageFile, acquireImage(imageFile), x, y, w, h, alpha, rot, borderSize, borderColor);
             }
 
-            if (isConfig(line)) {
-                final String key   = line.split("=")[0];
-                final String value = line.split("=")[1];
-                switch (key.toUpperCase()) {
-                    case "FILE": {
-                        image = parseImageFile(value, cursor);
-                    } break;
+            final int start = lexer.valueStart(line);
+            final int end   = lexer.valueEnd(line);
+            switch (lexer.key(line, "FILE", "X", "Y", "W", "H", "ALPHA", "ROTATION", "BORDERSIZE", "BORDERCOLOR")) {
+                case "FILE": {
+                    imageFile = parseImageFile(lexer.value(line), lexer, start, cursor);
+                } break;
 
-                    case "X": {
-                        x = parseFloat(value, cursor);
-                    } break;
+                case "X": {
+                    x = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "Y": {
-                        y = parseFloat(value, cursor);
-                    } break;
+                case "Y": {
+                    y = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "W": {
-                        w = parseFloat(value, cursor);
-                    } break;
+                case "W": {
+                    w = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "H": {
-                        h = parseFloat(value, cursor);
-                    } break;
+                case "H": {
+                    h = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "ALPHA": {
-                        alpha = parseFloat(value, cursor);
-                    } break;
+                case "ALPHA": {
+                    alpha = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "ROTATION": {
-                        rot = parseInteger(value, cursor);
-                    } break;
+                case "ROTATION": {
+                    rot = parseInteger(lexer, start, end, cursor);
+                } break;
 
-                    case "BORDERSIZE": {
-                        borderSize = parseFloat(value, cursor);
-                    } break;
+                case "BORDERSIZE": {
+                    borderSize = parseFloat(lexer, start, end, cursor);
+                } break;
 
-                    case "BORDERCOLOR": {
-                        parsePossibleGradient(borderColor, value, cursor);
-                    } break;
+                case "BORDERCOLOR": {
+                    parsePossibleGradient(borderColor, lexer, start, end, cursor);
+                } break;
 
-                    default: {
-                        throw new ParseException("Error on line %s: Unknown configuration name for an image element!", cursor.val + 1);
-                    }
+                default: {
+                    throw error(lexer, cursor, lexer.keyStart(line), "Unknown configuration name for an image element!");
                 }
             }
         }
 
-        return new Slide.Image(image, x, y, w, h, alpha, rot, borderSize, borderColor);
+        return new Slide.Image(imageFile, acquireImage(imageFile), x, y, w, h, alpha, rot, borderSize, borderColor);
     }
 
-    private Slide.Text parseTextElement(final String[] lines, final Cursor cursor) throws ParseException {
-        assert lines  != null;
+    private Slide.Text parseTextElement(final SlideShowLexer lexer, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
         // @NOTE default values
@@ -488,15 +721,15 @@ public final class SlideShowFileParser {
         boolean reversed      = false;
 
         while (cursor.advance()) {
-            final String line = lines[cursor.val].strip();
-            if (isComment(line)) {
+            final int line = cursor.val;
+            if (lexer.isComment(line)) {
                 continue;
             }
-            if (isEmptyLine(line)) {
+            if (lexer.isEmpty(line)) {
                 continue;
             }
 
-            if (!isConfig(line)) { // @NOTE probably another slide decl or element
+            if (!lexer.isConfig(line)) { // @NOTE probably another slide decl or element
                 cursor.unwind();
                 if (strings.size() == 0) {
                     strings.add("LINE=?????");
@@ -504,64 +737,62 @@ public final class SlideShowFileParser {
                 return new Slide.Text(strings.toArray(String[]::new), argb, font, style, underline, strikethrough, reversed, x, y, size, rot);
             }
 
-            if (isConfig(line)) {
-                final String key   = line.split("=")[0];
-                final String value = line.split("=")[1];
-                switch (key.toUpperCase()) {
-                    case "LINE": {
-                        strings.add(value);
-                    } break;
-
-                    case "COLOR": {
-                        parsePossibleGradient(argb, value, cursor);
-                    } break;
-
-                    case "X": {
-                        x = parseFloat(value, cursor);
-                    } break;
-
-                    case "Y": {
-                        y = parseFloat(value, cursor);
-                    } break;
-
-                    case "SIZE": {
-                        size = parseFloat(value, cursor);
-                    } break;
-
-                    case "ROTATION": {
-                        rot = parseInteger(value, cursor);
-                    } break;
-
-                    case "FONT": {
-                        font = checkFontInstalled(value, cursor);
-                    } break;
-
-                    case "STYLE": {
-                        // @NOTE :no_arrow_switch_case:
-                        style = switch (value) {
-                            case "PLAIN"      : yield Font.PLAIN;
-                            case "BOLD"       : yield Font.BOLD;
-                            case "ITALIC"     : yield Font.ITALIC;
-                            case "BOLDITALIC" : yield Font.ITALIC;
-                            default           : throw new ParseException("Error on line %s: Unknown font style! Can only be PLAIN, BOLD, ITALIC or BOLDITALIC!", cursor.val + 1);
-                        };
-                    } break;
-
-                    case "UNDERLINE": {
-                        underline = parseBoolean(value, cursor);
-                    } break;
-
-                    case "STRIKETHROUGH": {
-                        strikethrough = parseBoolean(value, cursor);
-                    } break;
-
-                    case "REVERSED": {
-                        reversed = parseBoolean(value, cursor);
-                    } break;
-
-                    default: {
-                        throw new ParseException("Error on line %s: Unknown configuration name for a text element!", cursor.val + 1);
-                    }
+            final int start = lexer.valueStart(line);
+            final int end   = lexer.valueEnd(line);
+            switch (lexer.key(line, "LINE", "COLOR", "X", "Y", "SIZE", "ROTATION", "FONT", "STYLE", "UNDERLINE", "STRIKETHROUGH", "REVERSED")) {
+                case "LINE": {
+                    strings.add(lexer.value(line));
+                } break;
+
+                case "COLOR": {
+                    parsePossibleGradient(argb, lexer, start, end, cursor);
+                } break;
+
+                case "X": {
+                    x = parseFloat(lexer, start, end, cursor);
+                } break;
+
+                case "Y": {
+                    y = parseFloat(lexer, start, end, cursor);
+                } break;
+
+                case "SIZE": {
+                    size = parseFloat(lexer, start, end, cursor);
+                } break;
+
+                case "ROTATION": {
+                    rot = parseInteger(lexer, start, end, cursor);
+                } break;
+
+                case "FONT": {
+                    font = checkFontInstalled(lexer.value(line), lexer, start, cursor);
+                } break;
+
+                case "STYLE": {
+                    // @NOTE :no_arrow_switch_case:
+                    style = switch (lexer.match(start, end, false, "PLAIN", "BOLD", "ITALIC", "BOLDITALIC")) {
+                        case "PLAIN"      : yield Font.PLAIN;
+                        case "BOLD"       : yield Font.BOLD;
+                        case "ITALIC"     : yield Font.ITALIC;
+                        case "BOLDITALIC" : yield Font.ITALIC;
+                        default           : throw error(lexer, cursor, start, "Unknown font style! Can only be PLAIN, BOLD, ITALIC or BOLDITALIC!");
+                    };
+                } break;
+
+                case "UNDERLINE": {
+                    underline = parseBoolean(lexer, start, end, cursor);
+                } break;
+
+                case "STRIKETHROUGH": {
+                    strikethrough = parseBoolean(lexer, start, end, cursor);
+                } break;
+
+                case "REVERSED": {
+                    reversed = parseBoolean(lexer, start, end, cursor);
+                } break;
+
+                default: {
+                    throw error(lexer, cursor, lexer.keyStart(line), "Unknown configuration name for a text element!");
                 }
             }
         }
@@ -572,31 +803,33 @@ public final class SlideShowFileParser {
         return new Slide.Text(strings.toArray(String[]::new), argb, font, style, underline, strikethrough, reversed, x, y, size, rot);
     }
 
-    private String requireSlideElement(final String line, final Cursor cursor) throws ParseException {
-        assert line   != null;
+    private String requireSlideElement(final SlideShowLexer lexer, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
+        final String line = lexer.line(cursor.val);
+
         final int startE = line.indexOf("{");
         final int endE   = line.indexOf("}");
         if (startE == -1 && endE == -1) {
-            throw new ParseException("Error on line %s: Invalid slide element declaration!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Invalid slide element declaration!");
         }
         if (countChar(line, '{') > 1) {
-            throw new ParseException("Error on line %s: Slide element definition has to many open tokens!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Slide element definition has to many open tokens!");
         }
         if (countChar(line, '}') > 1) {
-            throw new ParseException("Error on line %s: Slide element definition has to many close tokens!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Slide element definition has to many close tokens!");
         }
         if (startE == -1 && endE != -1) {
-            throw new ParseException("Error on line %s: Slide element has been closed but not opened!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Slide element has been closed but not opened!");
         }
         if (startE != -1 && endE == -1) {
-            throw new ParseException("Error on line %s: Slide element has been opened but not closed!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Slide element has been opened but not closed!");
         }
 
         final String eName = line.substring(startE + 1, endE);
         if (eName.isEmpty()) {
-            throw new ParseException("Error on line %s: A slide element must have a correct name indicating the type!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "A slide element must have a correct name indicating the type!");
         }
 
         switch (eName.toUpperCase()) {
@@ -617,74 +850,55 @@ public final class SlideShowFileParser {
             }
 
             default: {
-                throw new ParseException("Error on line %s: Unknown slide element!", cursor.val + 1);
+                throw error(lexer, cursor, lexer.lineStart(cursor.val), "Unknown slide element!");
             }
         }
     }
 
-    private boolean parseBoolean(final String s, final Cursor cursor) throws ParseException {
-        assert s      != null;
-        assert cursor != null;
-
-        final boolean result = s.equals("TRUE") || s.equals("FALSE");
-        if (result) {
-            return Boolean.parseBoolean(s);
-        } else {
-            throw new ParseException("Error on line %s: Invalid boolean!", cursor.val + 1);
-        }
-    }
-
-    private Image parseImageFile(final String s, final Cursor cursor) throws ParseException {
+    private String parseImageFile(final String s, final SlideShowLexer lexer, final int start, final Cursor cursor) throws ParseException {
         assert s      != null;
+        assert lexer  != null;
         assert cursor != null;
 
-        // @NOTE
-        // We use ImageIcon instead of ImageIO since it supports .gif files.
-        // It is also waaaayyyy faster to load!
-        // On the downside it does really give us a good way to check for errors...
         final File file = new File(s);
         if (!file.exists() || file.isDirectory()) {
-            throw new ParseException("Error on line %s: The path '%s' does not point to a file which can be read as an image.", cursor.val + 1, s);
+            throw error(lexer, cursor, start, "The path '%s' does not point to a file which can be read as an image.", s);
         }
-        return new javax.swing.ImageIcon(s).getImage(); // @NOTE that this does not block since it creates a background thread!
+        return s;
     }
 
-    private boolean isConfig(final String line) {
-        assert line != null;
-
-        return line.split("=").length == 2;
+    // @NOTE Only called once the element is complete, so an element which fails half way never holds a reference.
+    // Does not block; the display waits for the slide's images before showing it.
+    private ImageCache.ImageRec acquireImage(final String file) {
+        return file != null ? ImageCache.acquire(file) : null;
     }
 
-    private boolean isEmptyLine(final String line) {
-        assert line != null;
-
-        return line.isEmpty();
-    }
-
-    private String requireSlideDecl(final String line, final Cursor cursor) throws ParseException {
-        assert line   != null;
+    private String requireSlideDecl(final SlideShowLexer lexer, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
+        final String line = lexer.line(cursor.val);
+
         final int startSec = line.indexOf("[");
         final int endSec   = line.indexOf("]");
         if (startSec == -1 && endSec == -1) {
-            throw new ParseException("Error on line %s: You need to define a section first!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "You need to define a section first!");
         }
         if (countChar(line, '[') > 1) {
-            throw new ParseException("Error on line %s: Section definition has to many open tokens!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Section definition has to many open tokens!");
         }
         if (countChar(line, ']') > 1) {
-            throw new ParseException("Error on line %s: Section definition has to many close tokens!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Section definition has to many close tokens!");
         }
         if (startSec == -1 && endSec != -1) {
-            throw new ParseException("Error on line %s: Section has been closed but not opened!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Section has been closed but not opened!");
         }
         if (startSec != -1 && endSec == -1) {
-            throw new ParseException("Error on line %s: Section has been opened but not closed!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Section has been opened but not closed!");
         }
         final String secName = line.substring(startSec + 1, endSec);
         if (secName.isEmpty()) {
-            throw new ParseException("Error on line %s: Empty section name is not allowed!", cursor.val + 1);
+            throw error(lexer, cursor, lexer.lineStart(cursor.val), "Empty section name is not allowed!");
         }
         return secName;
     }
@@ -702,87 +916,80 @@ public final class SlideShowFileParser {
         return sum;
     }
 
-    private boolean isHeader(final String line) {
-        assert line != null;
-
-        return line.startsWith("(") && line.endsWith(")");
-    }
-
-    private boolean isComment(final String line) {
-        assert line != null;
-
-        return line.startsWith("#");
+    private int parseInteger(final String s, final int line) throws ParseException {
+        try {
+            return Integer.parseInt(s);
+        } catch (final NumberFormatException ex) {
+            throw new ParseException(line, 1, "Invalid integer!");
+        }
     }
 
-    private int parseInteger(final String s, final Cursor cursor) throws ParseException {
-        assert s      != null;
+    private int parseInteger(final SlideShowLexer lexer, final int start, final int end, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
-        return parseInteger(s, cursor.val + 1);
-    }
-
-    private int parseInteger(final String s, final int line) throws ParseException {
         try {
-            return Integer.parseInt(s);
+            return lexer.parseInteger(start, end);
         } catch (final NumberFormatException ex) {
-            throw new ParseException("Error on line %s: Invalid integer!", line);
+            throw error(lexer, cursor, start, "Invalid integer!");
         }
     }
 
-    private float parseFloat(final String s, final Cursor cursor) throws ParseException {
-        assert s      != null;
+    private boolean parseBoolean(final SlideShowLexer lexer, final int start, final int end, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
         assert cursor != null;
 
-        int dots = 0;
-        for (final char c : s.toCharArray()) {
-            if (c == '.') {
-                dots++;
-            }
+        if (lexer.isBoolean(start, end)) {
+            return lexer.parseBoolean(start, end);
+        } else {
+            throw error(lexer, cursor, start, "Invalid boolean!");
         }
+    }
+
+    private float parseFloat(final SlideShowLexer lexer, final int start, final int end, final Cursor cursor) throws ParseException {
+        assert lexer  != null;
+        assert cursor != null;
 
+        final int dots = lexer.count('.', start, end);
         if (dots == 0 || dots > 1) {
-            throw new ParseException("Error on line %s: Failed to parse float value!", cursor.val + 1);
+            throw error(lexer, cursor, start, "Failed to parse float value!");
         }
 
         try {
-            final float result = Float.parseFloat(s);
+            final float result = lexer.parseFloat(start, end);
             if (result > 1.0 || result < 0.0) {
-                throw new ParseException("Error on line %s: Float value must be between 0-1!", cursor.val + 1);
+                throw error(lexer, cursor, start, "Float value must be between 0-1!");
             }
             return result;
         } catch (final NumberFormatException ex) {
-            throw new ParseException("Error on line %s: Failed to parse float value!", cursor.val + 1);
+            throw error(lexer, cursor, start, "Failed to parse float value!");
         }
     }
 
-    private String checkFontInstalled(final String fontName, final Cursor cursor) throws ParseException {
+    private String checkFontInstalled(final String fontName, final SlideShowLexer lexer, final int start, final Cursor cursor) throws ParseException {
         assert fontName != null;
+        assert lexer    != null;
         assert cursor   != null;
 
-        final GraphicsEnvironment gfxEnv = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        final String[] fonts = gfxEnv.getAvailableFontFamilyNames();
-        for (final String font : fonts) {
-            if (font.equals(fontName)) {
-                return fontName;
-            }
+        if (FontRegistry.isInstalled(fontName)) {
+            return fontName;
         }
-        throw new ParseException("Error on line %s: You do not have the font '%s' installed on your system!", cursor.val + 1, fontName);
+        throw error(lexer, cursor, start, "You do not have the font '%s' installed on your system!", fontName);
     }
 
-    private boolean readFileIntoMemory(final StringBuilder buffer) {
+    private String readFileIntoMemory() {
         final FResult<FileInputStream> handleResult = SFile.openFileForReading(file.getAbsolutePath());
         if (handleResult.failed) {
             Main.logger.log(Level.SEVERE, handleResult.error.getMessage(), handleResult.error);
-            return false;
+            return null;
         }
 
-        final FResult<byte[]> readResult = SFile.read(handleResult.data);
+        final FResult<String> readResult = SFile.readUtf8(handleResult.data);
+        SFile.close(handleResult.data);
         if (readResult.failed) {
-            Main.logger.log(Level.SEVERE, handleResult.error.getMessage(), handleResult.error);
-            return false;
+            Main.logger.log(Level.SEVERE, readResult.error.getMessage(), readResult.error);
+            return null;
         }
-        SFile.close(handleResult.data);
-        buffer.append(new String(readResult.data));
-        return true;
+        return readResult.data;
     }
 }
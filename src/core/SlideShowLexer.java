@@ -0,0 +1,325 @@
+//
+// Line based lexer for the .kagami format.
+//
+// The whole file is kept as one char buffer (the source string). Lexing the file computes
+// the stripped bounds of every line and the position of the key/value separator once, so that
+// the parser can look at keys and values as spans into the buffer instead of allocating
+// substrings and String[] for every single line.
+//
+
+public final class SlideShowLexer {
+
+    private final String source;
+    private final int lineCount;
+
+    private final int[] lineStarts; // @NOTE inclusive, leading whitespace already skipped
+    private final int[] lineEnds;   // @NOTE exclusive, trailing whitespace already skipped
+    private final int[] separators; // @NOTE index of the '=' of a config line, -1 if the line is not a config
+    private final int[] valueEnds;  // @NOTE exclusive, end of the value of a config line
+
+    public SlideShowLexer(final String source) {
+        assert source != null;
+
+        this.source = source;
+
+        int count = 1;
+        for (int i = 0, l = source.length(); i < l; ++i) {
+            if (source.charAt(i) == '\n') {
+                count += 1;
+            }
+        }
+        this.lineCount  = count;
+        this.lineStarts = new int[count];
+        this.lineEnds   = new int[count];
+        this.separators = new int[count];
+        this.valueEnds  = new int[count];
+
+        int begin = 0;
+        for (int line = 0; line < count; ++line) {
+            int end = source.indexOf('\n', begin);
+            if (end == -1) {
+                end = source.length();
+            }
+            lexLine(line, begin, end);
+            begin = end + 1;
+        }
+    }
+
+    private void lexLine(final int line, final int begin, final int end) {
+        int start = begin;
+        int stop  = end;
+        while (start < stop && Character.isWhitespace(source.charAt(start))) {
+            start += 1;
+        }
+        while (stop > start && Character.isWhitespace(source.charAt(stop - 1))) {
+            stop -= 1;
+        }
+        lineStarts[line] = start;
+        lineEnds[line]   = stop;
+
+        // @NOTE This mirrors what 'line.split("=").length == 2' used to do: trailing separators do not count
+        // and there has to be exactly one separator followed by a non empty value.
+        int valueEnd = stop;
+        while (valueEnd > start && source.charAt(valueEnd - 1) == '=') {
+            valueEnd -= 1;
+        }
+        int separator = -1;
+        int count = 0;
+        for (int i = start; i < valueEnd; ++i) {
+            if (source.charAt(i) == '=') {
+                separator = i;
+                count += 1;
+            }
+        }
+        if (count == 1 && separator + 1 < valueEnd) {
+            separators[line] = separator;
+            valueEnds[line]  = valueEnd;
+        } else {
+            separators[line] = -1;
+            valueEnds[line]  = -1;
+        }
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public int lineStart(final int line) {
+        return lineStarts[line];
+    }
+
+    public int lineEnd(final int line) {
+        return lineEnds[line];
+    }
+
+    // @NOTE allocates; only meant for lines which are rare (slide and element declarations, metadata)
+    public String line(final int line) {
+        return source.substring(lineStarts[line], lineEnds[line]);
+    }
+
+    // @NOTE 64 bit FNV-1a over the raw characters of the given lines (both inclusive)
+    public long fingerprint(final int firstLine, final int lastLine) {
+        return hash(lineStarts[firstLine], lineEnds[lastLine]);
+    }
+
+    // @NOTE 64 bit FNV-1a over the whole source
+    public long fingerprint() {
+        return hash(source, 0, source.length());
+    }
+
+    // @NOTE same as fingerprint(), without having to lex 'source' first
+    public static long fingerprint(final String source) {
+        assert source != null;
+
+        return hash(source, 0, source.length());
+    }
+
+    private long hash(final int start, final int end) {
+        return hash(source, start, end);
+    }
+
+    private static long hash(final String source, final int start, final int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; ++i) {
+            hash ^= source.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // @NOTE 1 based column of the given offset into the source; only meant for error messages
+    public int column(final int offset) {
+        return offset - source.lastIndexOf('\n', offset - 1);
+    }
+
+    public boolean isEmpty(final int line) {
+        return lineStarts[line] == lineEnds[line];
+    }
+
+    public boolean startsWith(final int line, final char c) {
+        return !isEmpty(line) && source.charAt(lineStarts[line]) == c;
+    }
+
+    public boolean endsWith(final int line, final char c) {
+        return !isEmpty(line) && source.charAt(lineEnds[line] - 1) == c;
+    }
+
+    public boolean isComment(final int line) {
+        return startsWith(line, '#');
+    }
+
+    public boolean isHeader(final int line) {
+        return startsWith(line, '(') && endsWith(line, ')');
+    }
+
+    public boolean isConfig(final int line) {
+        return separators[line] != -1;
+    }
+
+    public int keyStart(final int line) {
+        assert isConfig(line);
+
+        return lineStarts[line];
+    }
+
+    public int keyEnd(final int line) {
+        assert isConfig(line);
+
+        return separators[line];
+    }
+
+    public int valueStart(final int line) {
+        assert isConfig(line);
+
+        return separators[line] + 1;
+    }
+
+    public int valueEnd(final int line) {
+        assert isConfig(line);
+
+        return valueEnds[line];
+    }
+
+    // @NOTE Returns the matching candidate itself (not a copy) so the result can be used in a switch statement
+    // without allocating anything. Returns an empty string if nothing matches.
+    public String key(final int line, final String... candidates) {
+        return match(keyStart(line), keyEnd(line), true, candidates);
+    }
+
+    public String value(final int line) {
+        return source.substring(valueStart(line), valueEnd(line));
+    }
+
+    public String match(final int start, final int end, final boolean ignoreCase, final String... candidates) {
+        assert candidates != null;
+
+        final int length = end - start;
+        for (final String candidate : candidates) {
+            if (candidate.length() == length && source.regionMatches(ignoreCase, start, candidate, 0, length)) {
+                return candidate;
+            }
+        }
+        return "";
+    }
+
+    public int indexOf(final char c, final int start, final int end) {
+        final int index = source.indexOf(c, start);
+        return index < end ? index : -1;
+    }
+
+    public int count(final char c, final int start, final int end) {
+        int sum = 0;
+        for (int i = start; i < end; ++i) {
+            if (source.charAt(i) == c) {
+                sum += 1;
+            }
+        }
+        return sum;
+    }
+
+    // @NOTE end of the field starting at 'start' which is terminated either by the separator or by 'end'
+    public int fieldEnd(final char separator, final int start, final int end) {
+        final int index = indexOf(separator, start, end);
+        return index == -1 ? end : index;
+    }
+
+    // @NOTE mirrors String.split() which drops trailing empty fields
+    public int trimTrailing(final char c, final int start, final int end) {
+        int stop = end;
+        while (stop > start && source.charAt(stop - 1) == c) {
+            stop -= 1;
+        }
+        return stop;
+    }
+
+    public int parseInteger(final int start, final int end) throws NumberFormatException {
+        return Integer.parseInt(source, start, end, 10);
+    }
+
+    public boolean isBoolean(final int start, final int end) {
+        return !match(start, end, false, "TRUE", "FALSE").isEmpty();
+    }
+
+    public boolean parseBoolean(final int start, final int end) {
+        assert isBoolean(start, end);
+
+        return source.charAt(start) == 'T';
+    }
+
+    // @NOTE Parses [+-]digits.digits (with an optional float suffix) straight from the buffer. We do not support
+    // exponents; nobody writes positions or sizes between 0 and 1 like that.
+    public float parseFloat(final int start, final int end) throws NumberFormatException {
+        int i    = start;
+        int stop = end;
+        while (i < stop && source.charAt(i) <= ' ') {
+            i += 1;
+        }
+        while (stop > i && source.charAt(stop - 1) <= ' ') {
+            stop -= 1;
+        }
+        if (stop > i) {
+            final char suffix = source.charAt(stop - 1);
+            if (suffix == 'f' || suffix == 'F' || suffix == 'd' || suffix == 'D') {
+                stop -= 1;
+            }
+        }
+
+        boolean negative = false;
+        if (i < stop && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i += 1;
+        }
+
+        long mantissa = 0;
+        int digits    = 0;
+        int fraction  = -1; // @NOTE amount of digits after the dot, -1 as long as we have not seen one
+        for (; i < stop; ++i) {
+            final char c = source.charAt(i);
+            if (c == '.') {
+                if (fraction != -1) {
+                    throw new NumberFormatException();
+                }
+                fraction = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException();
+            }
+            if (digits < 18) { // @NOTE ignore digits which do not fit into a long anymore; they are below float precision anyways
+                mantissa = mantissa * 10 + (c - '0');
+                digits += 1;
+                if (fraction != -1) {
+                    fraction += 1;
+                }
+            } else if (fraction == -1) {
+                throw new NumberFormatException();
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException();
+        }
+
+        double result = mantissa;
+        if (fraction > 0) {
+            result /= Math.pow(10, fraction);
+        }
+        return (float) (negative ? -result : result);
+    }
+
+    // @NOTE RRGGBBAA, everything after the first eight characters is ignored
+    public int parseHexRgba(final int start) throws NumberFormatException {
+        int result = 0;
+        for (int i = start; i < start + 8; ++i) {
+            final int digit = Character.digit(source.charAt(i), 16);
+            if (digit == -1) {
+                throw new NumberFormatException();
+            }
+            result = (result << 4) | digit;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,351 @@
+//
+// Process wide cache of decoded audio and a small pool of the lines it is played on.
+//
+// Entering a slide with audio used to open a new Clip and decode the whole file right on the
+// render thread, so every such transition hitched for a few hundred milliseconds. Now the audio of
+// the slides around the current one is decoded into PCM in the background ahead of time (see
+// prefetch()) and kept across slides and reloads until the cache goes over its memory budget.
+// Playing only ever hands the decoded audio to a clip on a background thread, and clips go back
+// into a pool once they have stopped; a pooled clip which already holds the audio is simply rewound.
+//
+// Decoded audio is identified like images are (see ImageCache), so an audio file which changed on
+// disk is decoded again the next time it is played. Finding out who a file is takes a few calls
+// into the file system, so that happens once when a slide is built and again when the file has
+// been reported as changed (see resolve()), never while switching slides.
+//
+// The budget can be set in megabytes with -Dkagami.audio_cache_mb=<n>.
+//
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+public final class AudioCache {
+
+    private AudioCache() {
+        assert false;
+    }
+
+    public static final record AudioKeyRec(String canonicalPath, long size, long lastModified) {}
+
+    // @NOTE decoded audio, exactly what Clip.open() takes
+    private static final record PcmRec(AudioFormat format, byte[] data) {}
+
+    private static final record IdleClipRec(PcmRec pcm, Clip clip) {}
+
+    private static final class CachedAudio {
+        public final CompletableFuture<PcmRec> pcm;
+        public long bytes = 0; // @NOTE 0 until the audio has been decoded
+
+        public CachedAudio(final CompletableFuture<PcmRec> pcm) {
+            this.pcm = pcm;
+        }
+    }
+
+    // @NOTE What a slide holds on to while its audio plays. Can be stopped at any time, even before the audio has
+    // been decoded, in which case it never starts.
+    public static final class Playback {
+        private Clip clip       = null; // @NOTE null until the audio has started and once it has stopped
+        private PcmRec pcm      = null;
+        private boolean stopped = false;
+
+        public void stop() {
+            AudioCache.stop(this);
+        }
+
+        // @NOTE true until stopped or played to its end, including while the audio is still being decoded
+        public boolean isPlaying() {
+            synchronized (AudioCache.class) {
+                return !stopped;
+            }
+        }
+    }
+
+    private static final long BUDGET_BYTES = Integer.getInteger("kagami.audio_cache_mb", 64) * 1024L * 1024L;
+
+    private static final int MAX_IDLE_CLIPS = 4; // @NOTE every open clip holds a copy of its audio
+
+    // @NOTE Decoding and opening lines both block for a while, so neither happens on the render thread. Starting
+    // clips gets a thread of its own; it should not have to wait for the next slide's audio to be decoded.
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "audio_loader_thread");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1); // @NOTE never get in the way of the main loop
+        return thread;
+    });
+
+    private static final ExecutorService player = Executors.newSingleThreadExecutor((runnable) -> {
+        final Thread thread = new Thread(runnable, "audio_player_thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // @NOTE access ordered, so iterating starts at the least recently used audio
+    private static final LinkedHashMap<AudioKeyRec, CachedAudio> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final ArrayList<IdleClipRec> idle = new ArrayList<>(); // @NOTE oldest first
+    private static final IdentityHashMap<Clip, Playback> playing = new IdentityHashMap<>();
+
+    private static long usedBytes = 0;
+
+    // @NOTE Looks the file up on disk; not to be called from the render thread. The key stays valid until the file
+    // changes, after which it has to be resolved again to get the new version.
+    public static AudioKeyRec resolve(final String file) {
+        assert file != null;
+
+        return keyOf(new File(file));
+    }
+
+    // @NOTE Starts decoding the audio in the background unless that has already happened. Never blocks.
+    public static void prefetch(final AudioKeyRec key) {
+        assert key != null;
+
+        load(key);
+    }
+
+    // @NOTE Never blocks; the audio starts as soon as it has been decoded (right away if it was prefetched).
+    public static Playback play(final AudioKeyRec key, final float decibel, final boolean loop) {
+        assert key != null;
+
+        final Playback playback = new Playback();
+        load(key).whenCompleteAsync((pcm, ex) -> {
+            if (ex != null) {
+                stop(playback); // @NOTE already logged by decode()
+                return;
+            }
+            start(playback, pcm, decibel, loop);
+        }, player);
+        return playback;
+    }
+
+    private static synchronized CompletableFuture<PcmRec> load(final AudioKeyRec key) {
+        CachedAudio entry = entries.get(key);
+        if (entry == null) {
+            dropStaleVersions(key.canonicalPath());
+
+            final CachedAudio created = new CachedAudio(CompletableFuture.supplyAsync(() -> decode(key.canonicalPath()), loader));
+            entries.put(key, created);
+            created.pcm.thenAccept((pcm) -> onDecoded(key, created, pcm)); // @NOTE after put(), it might run right away
+            entry = created;
+        }
+        return entry.pcm;
+    }
+
+    private static PcmRec decode(final String file) {
+        final long begin = System.nanoTime() / 1000000;
+        try (final AudioInputStream in = AudioSystem.getAudioInputStream(new File(file)); final AudioInputStream pcm = toPcm(in)) {
+            final PcmRec rec = new PcmRec(pcm.getFormat(), pcm.readAllBytes());
+            final long delta = (System.nanoTime() / 1000000) - begin;
+            Main.logger.log(Level.INFO, String.format("Decoded '%s' in %s milliseconds", file, delta));
+            return rec;
+        } catch (final IOException | UnsupportedAudioFileException ex) {
+            Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+            throw new CompletionException(ex);
+        }
+    }
+
+    // @NOTE e.g. mp3 or ulaw; a clip only plays plain PCM
+    private static AudioInputStream toPcm(final AudioInputStream in) {
+        final AudioFormat format = in.getFormat();
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED || format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED) {
+            return in;
+        }
+        final AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16, format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+        return AudioSystem.getAudioInputStream(target, in);
+    }
+
+    // @NOTE runs on the player thread
+    private static void start(final Playback playback, final PcmRec pcm, final float decibel, final boolean loop) {
+        final IdleClipRec pooled;
+        synchronized (AudioCache.class) {
+            if (playback.stopped) {
+                return;
+            }
+            pooled = takeIdle(pcm);
+        }
+
+        Clip clip = pooled != null ? pooled.clip() : null;
+        try {
+            if (pooled == null || pooled.pcm() != pcm) {
+                if (clip != null) {
+                    clip.close(); // @NOTE keeps the line object; opening it again is a lot cheaper than asking AudioSystem for a new one
+                } else {
+                    clip = newClip();
+                }
+                clip.open(pcm.format(), pcm.data(), 0, pcm.data().length);
+            }
+            clip.setFramePosition(0);
+            setGain(clip, decibel);
+        } catch (final LineUnavailableException | IllegalArgumentException ex) {
+            Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+            if (clip != null) {
+                clip.close();
+            }
+            stop(playback);
+            return;
+        }
+
+        synchronized (AudioCache.class) {
+            if (playback.stopped) { // @NOTE the slide has been left while we were opening the line
+                recycle(pcm, clip);
+                return;
+            }
+            playback.clip = clip;
+            playback.pcm  = pcm;
+            playing.put(clip, playback);
+        }
+
+        // @NOTE Starting a line can take a moment, so it never happens while holding the lock the render thread takes
+        // whenever it switches slides.
+        if (loop) {
+            clip.loop(Clip.LOOP_CONTINUOUSLY);
+        } else {
+            clip.start();
+        }
+
+        // @NOTE The slide might have been left while the line was starting. stop() has handed the clip back to this
+        // thread to be stopped and recycled, but that only runs after we are done here; silence it right away.
+        final boolean stopped;
+        synchronized (AudioCache.class) {
+            stopped = playback.stopped;
+        }
+        if (stopped) {
+            clip.stop();
+        }
+    }
+
+    private static Clip newClip() throws LineUnavailableException {
+        final Clip clip = (Clip) AudioSystem.getLine(new Line.Info(Clip.class));
+        clip.addLineListener((event) -> {
+            if (event.getType() == LineEvent.Type.STOP) {
+                onStop(clip);
+            }
+        });
+        return clip;
+    }
+
+    private static void setGain(final Clip clip, final float decibel) {
+        if (!clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+            return;
+        }
+        final FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+        gainControl.setValue(Math.max(gainControl.getMinimum(), Math.min(gainControl.getMaximum(), decibel)));
+    }
+
+    private static synchronized void stop(final Playback playback) {
+        if (playback.stopped) {
+            return;
+        }
+        playback.stopped = true;
+
+        final Clip clip  = playback.clip;
+        final PcmRec pcm = playback.pcm;
+        playback.clip = null;
+        playback.pcm  = null;
+        if (clip != null) {
+            playing.remove(clip);
+            player.execute(() -> { // @NOTE stopping a line can block for a moment; not on the render thread
+                clip.stop();
+                clip.flush();
+                synchronized (AudioCache.class) {
+                    recycle(pcm, clip);
+                }
+            });
+        }
+    }
+
+    // @NOTE Called by the sound system for every stop; only clips which have played to their end are of interest here.
+    // The ones we stopped ourselves are not in 'playing' anymore.
+    private static synchronized void onStop(final Clip clip) {
+        final Playback playback = playing.get(clip);
+        if (playback == null || clip.isRunning() || clip.getFramePosition() < clip.getFrameLength()) {
+            return;
+        }
+        playing.remove(clip);
+        playback.stopped = true;
+        recycle(playback.pcm, clip);
+        playback.clip = null;
+        playback.pcm  = null;
+    }
+
+    // @NOTE prefers a clip which already holds the same audio, so it does not even have to be opened again
+    private static IdleClipRec takeIdle(final PcmRec pcm) {
+        for (int i = idle.size() - 1; i >= 0; --i) {
+            if (idle.get(i).pcm() == pcm) {
+                return idle.remove(i);
+            }
+        }
+        return idle.isEmpty() ? null : idle.remove(0);
+    }
+
+    private static void recycle(final PcmRec pcm, final Clip clip) {
+        idle.add(new IdleClipRec(pcm, clip));
+        if (idle.size() > MAX_IDLE_CLIPS) {
+            final Clip oldest = idle.remove(0).clip();
+            player.execute(oldest::close);
+        }
+    }
+
+    private static AudioKeyRec keyOf(final File file) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (final IOException ex) {
+            path = file.getAbsolutePath(); // @NOTE still good enough to tell files apart
+        }
+        return new AudioKeyRec(path, file.length(), file.lastModified());
+    }
+
+    private static synchronized void onDecoded(final AudioKeyRec key, final CachedAudio entry, final PcmRec pcm) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        entry.bytes = pcm.data().length;
+        usedBytes += entry.bytes;
+        evict();
+    }
+
+    // @NOTE Once a file has changed on disk its old versions can never be asked for again. Clips which are playing
+    // one of them hold on to their own copy.
+    private static void dropStaleVersions(final String canonicalPath) {
+        final Iterator<Map.Entry<AudioKeyRec, CachedAudio>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<AudioKeyRec, CachedAudio> e = it.next();
+            if (e.getKey().canonicalPath().equals(canonicalPath)) {
+                usedBytes -= e.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    private static void evict() {
+        final Iterator<Map.Entry<AudioKeyRec, CachedAudio>> it = entries.entrySet().iterator();
+        while (usedBytes > BUDGET_BYTES && it.hasNext()) {
+            final Map.Entry<AudioKeyRec, CachedAudio> e = it.next();
+            if (!e.getValue().pcm.isDone()) {
+                continue; // @NOTE still being decoded; counts once it is done
+            }
+            Main.logger.log(Level.INFO, String.format("Evicting '%s' from the audio cache", e.getKey().canonicalPath()));
+            usedBytes -= e.getValue().bytes;
+            it.remove();
+        }
+    }
+}
@@ -1,29 +1,74 @@
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 public final class FileModWatcher {
 
     private final Path interestingFile;
-    private final Lambdas.Nullary<?> callback;
+    private final Lambdas.Nullary<Collection<Path>> callback;
+    private final Lambdas.Unary<?, Path> assetCallback;
     private WatchService watcher;
     private volatile boolean polling = false;
 
-    public FileModWatcher(final Path interestingFile, final Lambdas.Nullary<?> callback) {
+    private static final record FileStateRec(boolean exists, long size, long lastModified) {}
+
+    // @NOTE How long the file has to stay untouched before we look at it. Editors write a file in several steps and a
+    // file that is looked at too early is half written. Can be set with -Dkagami.reload_quiet_ms=<n>.
+    private static final long QUIET_MILLIS = Integer.getInteger("kagami.reload_quiet_ms", 100);
+    private static final long POLL_MILLIS  = 500;
+
+    private static final class WatchedFile {
+        public final Path path;
+        public FileStateRec lastSeen;
+        public Long lastHash = null; // @NOTE null until we have read the file once
+        public long deadline = -1;   // @NOTE when the current burst of events is considered over; -1 if there is none
+
+        public WatchedFile(final Path path) {
+            this.path     = path;
+            this.lastSeen = stat(path);
+        }
+    }
+
+    // @NOTE Only touched by the watcher thread (and by start() before that exists). The interesting file and every
+    // asset it depends on, by absolute path, and a key for every directory one of them is in.
+    private final HashMap<Path, WatchedFile> files = new HashMap<>();
+    private final HashMap<Path, WatchKey> dirs     = new HashMap<>();
+    private final ArrayList<WatchedFile> due       = new ArrayList<>();
+    private final byte[] hashBuffer                = new byte[64 * 1024];
+
+    // @NOTE 'callback' is called whenever the interesting file has changed and returns the assets it depends on from
+    // now on (or null to keep watching the previous ones). 'assetCallback' is called with the absolute path of an asset
+    // which has changed.
+    public FileModWatcher(final Path interestingFile, final Lambdas.Nullary<Collection<Path>> callback, final Lambdas.Unary<?, Path> assetCallback) {
         assert interestingFile != null;
         assert callback        != null;
+        assert assetCallback   != null;
 
-        this.interestingFile = interestingFile;
+        this.interestingFile = interestingFile.toAbsolutePath().normalize();
         this.callback        = callback;
+        this.assetCallback   = assetCallback;
     }
 
-    public synchronized void start() {
+    // @NOTE 'assets' are the files the interesting file depends on right now
+    public synchronized void start(final Collection<Path> assets) {
+        assert assets != null;
+
         if (polling) {
             assert false : "You already started the watcher. Need to call stop() first!";
             return;
@@ -31,6 +76,10 @@ public final class FileModWatcher {
 
         polling = true;
 
+        // @NOTE whatever is on disk right now is what the caller has just loaded; it is hashed by the watcher thread
+        files.clear();
+        files.put(interestingFile, new WatchedFile(interestingFile));
+
         try {
             watcher = FileSystems.getDefault().newWatchService();
             Main.logger.log(Level.INFO, "Platform does support event based file watching.");
@@ -40,6 +89,8 @@ public final class FileModWatcher {
             Main.logger.log(Level.WARNING, "Event based file watching is not supported on this platform.");
         }
 
+        watchAssets(assets);
+
         if (watcher != null) {
             smartPolling();
         } else { // @NOTE platform does not support event based file watching
@@ -59,54 +110,95 @@ public final class FileModWatcher {
         }
     }
 
+    // @NOTE Assets which are already being watched keep their state, so a reload of the interesting file does not make
+    // us forget about an asset that is just being written.
+    private void watchAssets(final Collection<Path> assets) {
+        final HashSet<Path> wanted = new HashSet<>();
+        wanted.add(interestingFile);
+        for (final Path asset : assets) {
+            wanted.add(asset.toAbsolutePath().normalize());
+        }
+        files.keySet().retainAll(wanted);
+        for (final Path path : wanted) {
+            files.computeIfAbsent(path, WatchedFile::new);
+        }
+
+        if (watcher == null) {
+            return;
+        }
+
+        final HashSet<Path> wantedDirs = new HashSet<>();
+        for (final Path path : files.keySet()) {
+            wantedDirs.add(dirOf(path));
+        }
+        final Iterator<Map.Entry<Path, WatchKey>> it = dirs.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Path, WatchKey> e = it.next();
+            if (!wantedDirs.contains(e.getKey())) {
+                e.getValue().cancel();
+                it.remove();
+            }
+        }
+        for (final Path dir : wantedDirs) {
+            if (dirs.containsKey(dir)) {
+                continue;
+            }
+            try {
+                // @NOTE Editors which save through a temporary file rename it over ours; that shows up as a create.
+                dirs.put(dir, dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            } catch (final IOException ex) {
+                Main.logger.log(Level.WARNING, String.format("Can not watch '%s'", dir), ex);
+            }
+        }
+        Main.logger.log(Level.INFO, String.format("Watching %s files in %s directories", files.size(), dirs.size()));
+    }
+
     private synchronized void smartPolling() {
         final Thread thread = new Thread(() -> {
+            hashInterestingFile();
             try {
-                Path dir = interestingFile.getParent();
-                if (dir == null) { // @NOTE no parent
-                    dir = Path.of(System.getProperty("user.dir"));
-                }
-                dir.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY);
                 while (polling) {
+                    final long deadline = nextDeadline();
 
                     WatchKey key = null;
                     try {
-                        key = watcher.take();
+                        key = deadline == -1 ? watcher.take() : watcher.poll(Math.max(0, deadline - now()), TimeUnit.MILLISECONDS);
                     } catch (final ClosedWatchServiceException ex) {
                         // @NOTE user has called stop
                         return;
                     }
 
-                    // @NOTE Prevent receiving two separate ENTRY_MODIFY events: file modified
-                    // and timestamp updated. Instead, receive one ENTRY_MODIFY event
-                    // with two counts.
-                    // @TODO That is pretty 'yikes' don't you think?
-                    // Probably better to check the timestamp of the file.
-                    Thread.sleep(50);
-
-                    for (final WatchEvent<?> event: key.pollEvents()) {
-                        final WatchEvent.Kind<?> kind = event.kind();
-                        if (kind == StandardWatchEventKinds.OVERFLOW) {
-                            continue;
-                        }
+                    if (key != null) {
+                        final Path dir = (Path) key.watchable();
+                        for (final WatchEvent<?> event: key.pollEvents()) {
+                            final WatchEvent.Kind<?> kind = event.kind();
+                            if (kind == StandardWatchEventKinds.OVERFLOW) {
+                                for (final WatchedFile file : files.values()) { // @NOTE we might have missed one for any of our files
+                                    if (dirOf(file.path).equals(dir)) {
+                                        touched(file);
+                                    }
+                                }
+                                continue;
+                            }
 
-                        @SuppressWarnings("unchecked")
-                        final WatchEvent<Path> evt = (WatchEvent<Path>) event;
+                            @SuppressWarnings("unchecked")
+                            final WatchEvent<Path> evt = (WatchEvent<Path>) event;
 
-                        final Path fileName = evt.context();
-                        if (fileName.getFileName().equals(interestingFile.getFileName())) {
-                            Main.logger.log(Level.INFO, "Received mod event");
-                            callback.call();
+                            final WatchedFile file = files.get(dir.resolve(evt.context()));
+                            if (file != null) {
+                                touched(file);
+                            }
                         }
 
                         final boolean valid = key.reset();
                         if (!valid) {
-                            break;
+                            Main.logger.log(Level.WARNING, String.format("Can not watch '%s' anymore", dir));
+                            dirs.remove(dir);
                         }
                     }
+
+                    settleDue();
                 }
-            } catch (final IOException ex) {
-                Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
             } catch (final InterruptedException ex) {
                 return;
             }
@@ -119,23 +211,21 @@ public final class FileModWatcher {
 
     private synchronized void stupidPolling() {
         final Thread thread = new Thread(() -> {
-            long last = interestingFile.toFile().lastModified();
+            hashInterestingFile();
             while (polling) {
-                long now = interestingFile.toFile().lastModified();
-                if (now > last) {
-                    try {
-                        callback.call();
-                    } finally {
-                        last = now;
-                    }
-                } else {
-                    Thread.yield();
-                    try {
-                        Thread.sleep(500);
-                    } catch (final InterruptedException ex) {
-                        return;
+                final long deadline = nextDeadline();
+                try {
+                    Thread.sleep(deadline == -1 ? POLL_MILLIS : Math.max(1, deadline - now()));
+                } catch (final InterruptedException ex) {
+                    return;
+                }
+
+                for (final WatchedFile file : files.values()) {
+                    if (file.deadline == -1 && !stat(file.path).equals(file.lastSeen)) {
+                        touched(file);
                     }
                 }
+                settleDue();
             }
         }, "file_mod_watcher_stupid_thread");
 
@@ -143,4 +233,125 @@ public final class FileModWatcher {
         thread.setPriority(Thread.MIN_PRIORITY);
         thread.start();
     }
+
+    // @NOTE Runs on the watcher thread before it waits for anything, so reading a large slideshow does not hold up the
+    // thread which has started us (the EDT, right before the first frame). If the file has been touched since start()
+    // it is left without a hash; then whatever we see next counts as a change.
+    private void hashInterestingFile() {
+        final WatchedFile main = files.get(interestingFile);
+        final FResult<Long> hashResult = hash(interestingFile);
+        if (hashResult.success && stat(interestingFile).equals(main.lastSeen)) {
+            main.lastHash = hashResult.data;
+        }
+    }
+
+    // @NOTE A single save usually comes as several events (content, then timestamp; or one per chunk written). Every
+    // event pushes the deadline back, so we only look once it is quiet.
+    private void touched(final WatchedFile file) {
+        Main.logger.log(Level.INFO, String.format("Received mod event for '%s'", file.path));
+        file.lastSeen = stat(file.path);
+        file.deadline = now() + QUIET_MILLIS;
+    }
+
+    private long nextDeadline() {
+        long deadline = -1;
+        for (final WatchedFile file : files.values()) {
+            if (file.deadline != -1 && (deadline == -1 || file.deadline < deadline)) {
+                deadline = file.deadline;
+            }
+        }
+        return deadline;
+    }
+
+    private void settleDue() {
+        final long now = now();
+        due.clear();
+        for (final WatchedFile file : files.values()) {
+            if (file.deadline != -1 && now >= file.deadline) {
+                due.add(file);
+            }
+        }
+        for (final WatchedFile file : due) {
+            if (files.get(file.path) != file) {
+                continue; // @NOTE not depended on anymore since the interesting file has been reloaded
+            }
+            file.deadline = reloadIfSettled(file) ? -1 : now() + QUIET_MILLIS;
+        }
+        due.clear();
+    }
+
+    // @NOTE Called once things have been quiet for a while. Returns false if the file is still being written (it has
+    // changed since we last looked at it), in which case the caller should wait another quiet period and ask again.
+    // Only calls back if the content is actually different from what we have last loaded; saving without changes,
+    // touching the file or an editor writing backups next to it does not cause a reload.
+    private boolean reloadIfSettled(final WatchedFile file) {
+        final FileStateRec state = stat(file.path);
+        if (!state.equals(file.lastSeen)) {
+            file.lastSeen = state;
+            return false;
+        }
+        if (!state.exists()) {
+            return true; // @NOTE e.g. deleted before the new version is renamed into place; that one comes as an event of its own
+        }
+
+        // @NOTE A file we can not read (e.g. locked by the editor, or no permission) counts as changed. Whoever reloads
+        // it runs into the same error and reports it; asking again every quiet period would never end.
+        final FResult<Long> hashResult = hash(file.path);
+        if (hashResult.failed) {
+            Main.logger.log(Level.WARNING, String.format("Can not read '%s'; reloading it anyway", file.path), hashResult.error);
+            file.lastHash = null;
+        } else if (hashResult.data.equals(file.lastHash)) {
+            // @NOTE Assets are only read once they change, so the first change of an asset always counts. They are not
+            // hashed up front because that would mean reading every image of the slideshow a second time on startup.
+            Main.logger.log(Level.INFO, String.format("'%s' has been written without any changes; not reloading", file.path));
+            return true;
+        } else {
+            file.lastHash = hashResult.data;
+        }
+
+        if (file.path.equals(interestingFile)) {
+            final Collection<Path> assets = callback.call();
+            if (assets != null) {
+                watchAssets(assets);
+            }
+        } else {
+            assetCallback.call(file.path);
+        }
+        return true;
+    }
+
+    private static Path dirOf(final Path file) {
+        final Path dir = file.getParent();
+        return dir != null ? dir : Path.of(System.getProperty("user.dir")); // @NOTE no parent
+    }
+
+    private static FileStateRec stat(final Path path) {
+        final File file = path.toFile();
+        return new FileStateRec(file.isFile(), file.length(), file.lastModified());
+    }
+
+    // @NOTE 64 bit FNV-1a over the whole file, streamed through a buffer of our own so a large asset is never held in
+    // memory at once
+    private FResult<Long> hash(final Path path) {
+        try (final InputStream in = Files.newInputStream(path)) {
+            long hash = 0xcbf29ce484222325L;
+            for (;;) {
+                final int read = in.read(hashBuffer);
+                if (read == -1) {
+                    break;
+                }
+                for (int i = 0; i < read; ++i) {
+                    hash ^= hashBuffer[i] & 0xff;
+                    hash *= 0x100000001b3L;
+                }
+            }
+            return new FResult<>(hash, null);
+        } catch (final IOException ex) {
+            return new FResult<>(null, ex);
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000;
+    }
 }
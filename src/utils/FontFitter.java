@@ -0,0 +1,128 @@
+//
+// Finds the font size at which a text fills a given width (and optionally height).
+//
+// Fitting used to walk up from size 0 in steps of 0.2, deriving and measuring a font on every
+// step; a big heading took hundreds of steps per text per resize. Text width grows linearly with
+// the font size, so we measure once at a reference size to guess the answer and only bisect the
+// few steps around that guess to make up for hinting and rounding. Results are cached process
+// wide because the same texts get fitted to the same sizes over and over again (every slide with
+// the same heading, every resize back to a previous window size, every frame of an error message).
+//
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class FontFitter {
+
+    private FontFitter() {
+        assert false;
+    }
+
+    private static final record FitKeyRec(String family, int style, List<String> lines, float targetWidthPx, float targetHeightPx, FontRenderContext frc) {}
+
+    // @NOTE Sizes are a multiple of this. It is what the old linear search stepped by, so fitted texts still come out
+    // the exact same size.
+    private static final float STEP = 0.20f;
+
+    private static final float REFERENCE_SIZE = 100.0f;
+
+    private static final int MAX_STEPS = (int) (16384 / STEP); // @NOTE texts that are empty (or only whitespace) never fill anything
+
+    // @NOTE Hinting makes the width of a text grow in small jumps that are not always monotonic, so a smaller size
+    // than the one the bisection ends up with might fit as well. The linear search found the first size that fits,
+    // so we walk this many steps below the result the same way.
+    private static final int LINEAR_CHECK_STEPS = 8;
+
+    private static final int MAX_CACHED_FITS = 4096; // @NOTE every window size produces new targets; do not grow forever
+
+    private static final ConcurrentHashMap<FitKeyRec, Float> fits = new ConcurrentHashMap<>();
+
+    public static float fitWidth(final Graphics2D g, final String family, final int style, final String line, final float targetWidthPx) {
+        return fit(g, family, style, new String[] { line }, targetWidthPx, 0);
+    }
+
+    // @NOTE Returns the smallest size at which the widest line is at least 'targetWidthPx' wide or, if 'targetHeightPx' is
+    // greater than 0, all lines together are at least 'targetHeightPx' high. Measures with the metrics of 'g'.
+    public static float fit(final Graphics2D g, final String family, final int style, final String[] lines, final float targetWidthPx, final float targetHeightPx) {
+        assert g      != null;
+        assert family != null;
+        assert lines  != null && lines.length > 0;
+
+        final FitKeyRec key = new FitKeyRec(family, style, List.of(lines), targetWidthPx, targetHeightPx, g.getFontRenderContext()); // @NOTE a copy; callers may reuse their array
+        final Float cached = fits.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (fits.size() >= MAX_CACHED_FITS) {
+            fits.clear();
+        }
+
+        final float size = search(g, key);
+        fits.put(key, size);
+        return size;
+    }
+
+    private static float search(final Graphics2D g, final FitKeyRec key) {
+        if (fits(g, key, 0)) {
+            return 0;
+        }
+
+        // @NOTE Guess from a single measurement, then widen the bracket until it holds the answer. The guess is usually
+        // off by a step or two, so the bracket hardly ever has to grow.
+        final FontMetrics reference = g.getFontMetrics(FontRegistry.getFont(key.family(), key.style(), REFERENCE_SIZE));
+        float guess = key.targetWidthPx() / Math.max(1, widest(reference, key.lines()));
+        if (key.targetHeightPx() > 0) {
+            guess = Math.min(guess, key.targetHeightPx() / Math.max(1, (float) reference.getHeight() * key.lines().size()));
+        }
+        final int estimate = Math.min(MAX_STEPS, (int) (guess * REFERENCE_SIZE / STEP));
+
+        int lo = Math.max(0, estimate - 2); // @NOTE invariant: does not fit at 'lo'
+        int hi = Math.min(MAX_STEPS, estimate + 2); // @NOTE invariant: fits at 'hi'
+        for (int width = 4; lo > 0 && fits(g, key, lo); width *= 2) {
+            hi = lo;
+            lo = Math.max(0, lo - width);
+        }
+        for (int width = 4; hi < MAX_STEPS && !fits(g, key, hi); width *= 2) {
+            lo = hi;
+            hi = Math.min(MAX_STEPS, hi + width);
+        }
+
+        while (hi - lo > 1) {
+            final int mid = (lo + hi) >>> 1;
+            if (fits(g, key, mid)) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+
+        for (int steps = Math.max(1, hi - LINEAR_CHECK_STEPS); steps < hi - 1; ++steps) { // @NOTE 'hi - 1' is known not to fit
+            if (fits(g, key, steps)) {
+                return steps * STEP;
+            }
+        }
+        return hi * STEP;
+    }
+
+    private static boolean fits(final Graphics2D g, final FitKeyRec key, final int steps) {
+        final Font font = FontRegistry.getFont(key.family(), key.style(), steps * STEP);
+        final FontMetrics metrics = g.getFontMetrics(font);
+        if (widest(metrics, key.lines()) >= key.targetWidthPx()) {
+            return true;
+        }
+        return key.targetHeightPx() > 0 && (float) metrics.getHeight() * key.lines().size() >= key.targetHeightPx();
+    }
+
+    private static int widest(final FontMetrics metrics, final List<String> lines) {
+        int width = 0;
+        for (int i = 0, l = lines.size(); i < l; ++i) {
+            width = Math.max(width, metrics.stringWidth(lines.get(i)));
+        }
+        return width;
+    }
+}
@@ -0,0 +1,85 @@
+//
+// Process wide cache of the installed font families and of the fonts we derive from them.
+//
+// Asking the GraphicsEnvironment for the installed families is expensive (hundreds of fonts on
+// some Linux machines), so we do it exactly once on a background thread and answer every further
+// question with a hash lookup.
+//
+
+import java.awt.Font;
+import java.awt.GraphicsEnvironment;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+
+public final class FontRegistry {
+
+    private FontRegistry() {
+        assert false;
+    }
+
+    private static final record FontKeyRec(String name, int style, float size) {}
+
+    private static final int MAX_CACHED_FONTS = 1024; // @NOTE every window size produces new sizes; do not grow forever
+
+    private static final ConcurrentHashMap<FontKeyRec, Font> fonts = new ConcurrentHashMap<>();
+
+    private static FutureTask<HashSet<String>> families = null;
+
+    // @NOTE Starts indexing the installed fonts in the background, if that has not happened yet.
+    // Call this as early as possible so the index is ready by the time we parse the first slideshow.
+    public static synchronized void warmUp() {
+        if (families != null) {
+            return;
+        }
+
+        families = new FutureTask<>(() -> {
+            final long begin = System.nanoTime() / 1000000;
+            final String[] names = GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames();
+            final HashSet<String> set = new HashSet<>(Arrays.asList(names));
+            final long delta = (System.nanoTime() / 1000000) - begin;
+            Main.logger.log(Level.INFO, String.format("Indexed %s font families in %s milliseconds", set.size(), delta));
+            return set;
+        });
+
+        final Thread thread = new Thread(families, "font_registry_thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static boolean isInstalled(final String family) {
+        assert family != null;
+
+        warmUp();
+
+        try {
+            return families.get().contains(family); // @NOTE only blocks if the index is still being built
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ExecutionException ex) {
+            Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    public static Font getFont(final String family, final int style, final float size) {
+        assert family != null;
+
+        final FontKeyRec key = new FontKeyRec(family, style, size);
+        final Font cached = fonts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (fonts.size() >= MAX_CACHED_FONTS) {
+            fonts.clear();
+        }
+
+        final Font base = fonts.computeIfAbsent(new FontKeyRec(family, style, 0), (k) -> new Font(k.name(), k.style(), 0));
+        return fonts.computeIfAbsent(key, (k) -> base.deriveFont(k.size()));
+    }
+}
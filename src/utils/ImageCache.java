@@ -0,0 +1,221 @@
+//
+// Process wide cache of decoded images, shared by all slides and kept across reloads.
+//
+// Images are identified by their canonical path together with their size and modification time, so
+// the same file used on many slides is decoded exactly once and a reload only decodes images which
+// actually changed on disk. Every slide element holds a reference; images nobody references anymore
+// stay around (a reload usually wants them again) until the cache goes over its memory budget, then
+// the least recently used ones are dropped first.
+//
+// Images pre scaled to the size they are drawn at are shared the same way, keyed by the image, the
+// target size and the graphics configuration, so the same logo on every slide is scaled (and kept
+// in memory) once per window size. They count against the same budget.
+//
+// The budget can be set in megabytes with -Dkagami.image_cache_mb=<n>.
+//
+
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+public final class ImageCache {
+
+    private ImageCache() {
+        assert false;
+    }
+
+    public static final record ImageKeyRec(String canonicalPath, long size, long lastModified) {}
+
+    // @NOTE what a slide element holds on to; has to be handed back through release() exactly once
+    public static final record ImageRec(ImageKeyRec key, CompletableFuture<Image> image) {}
+
+    public static final record ScaledKeyRec(ImageKeyRec image, int width, int height, GraphicsConfiguration gfxConfig) {}
+
+    // @NOTE same as ImageRec, for a scaled image; has to be handed back through releaseScaled() exactly once
+    public static final record ScaledRec(ScaledKeyRec key, CompletableFuture<BufferedImage> image) {}
+
+    private static final class CachedScaled {
+        public final CompletableFuture<BufferedImage> image;
+        public int refs   = 0;
+        public long bytes = 0; // @NOTE 0 until the image has been scaled
+
+        public CachedScaled(final CompletableFuture<BufferedImage> image) {
+            this.image = image;
+        }
+    }
+
+    private static final class CachedImage {
+        public final CompletableFuture<Image> image;
+        public int refs   = 0;
+        public long bytes = 0; // @NOTE 0 until the image has been decoded
+        public boolean stale = false; // @NOTE a newer version of the file has been loaded since
+
+        public CachedImage(final CompletableFuture<Image> image) {
+            this.image = image;
+        }
+    }
+
+    private static final long BUDGET_BYTES = Integer.getInteger("kagami.image_cache_mb", 512) * 1024L * 1024L;
+
+    // @NOTE access ordered, so iterating starts at the least recently used image
+    private static final LinkedHashMap<ImageKeyRec, CachedImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private static final LinkedHashMap<ScaledKeyRec, CachedScaled> scaledEntries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private static long usedBytes = 0; // @NOTE decoded and scaled images together
+
+    public static synchronized ImageRec acquire(final String file) {
+        assert file != null;
+
+        final ImageKeyRec key = keyOf(new File(file));
+        CachedImage entry = entries.get(key);
+        if (entry == null) {
+            dropStaleVersions(key.canonicalPath());
+
+            final CachedImage created = new CachedImage(ImageLoader.load(file));
+            entries.put(key, created);
+            created.image.thenAccept((image) -> onDecoded(key, created, image)); // @NOTE after put(), it might run right away
+            entry = created;
+        }
+        entry.refs += 1;
+        return new ImageRec(key, entry.image);
+    }
+
+    public static synchronized void release(final ImageRec rec) {
+        assert rec != null;
+
+        final CachedImage entry = entries.get(rec.key());
+        if (entry == null || entry.image != rec.image()) {
+            return; // @NOTE already dropped as a stale version
+        }
+        assert entry.refs > 0;
+        entry.refs -= 1;
+        if (entry.refs == 0 && entry.stale) { // @NOTE e.g. the slide showing it has just swapped in the new version
+            usedBytes -= entry.bytes;
+            entries.remove(rec.key());
+        }
+        evict();
+    }
+
+    // @NOTE Hands out 'rec' scaled to exactly width x height in the pixel layout of 'gfxConfig'. Scaling happens on the
+    // workers of the ImageLoader; never blocks. 'rec' has to be decoded into a BufferedImage already, returns null
+    // otherwise (still decoding, failed or an animated gif).
+    public static synchronized ScaledRec acquireScaled(final ImageRec rec, final int width, final int height, final GraphicsConfiguration gfxConfig) {
+        assert rec       != null;
+        assert gfxConfig != null;
+        assert width > 0 && height > 0;
+
+        if (!rec.image().isDone() || rec.image().isCompletedExceptionally() || !(rec.image().join() instanceof BufferedImage image)) {
+            return null;
+        }
+
+        final ScaledKeyRec key = new ScaledKeyRec(rec.key(), width, height, gfxConfig);
+        CachedScaled entry = scaledEntries.get(key);
+        if (entry == null) {
+            final CachedScaled created = new CachedScaled(ImageLoader.scaleLater(image, width, height, gfxConfig));
+            scaledEntries.put(key, created);
+            created.image.thenAccept((scaled) -> onScaled(key, created, scaled)); // @NOTE after put(), it might run right away
+            entry = created;
+        }
+        entry.refs += 1;
+        return new ScaledRec(key, entry.image);
+    }
+
+    public static synchronized void releaseScaled(final ScaledRec rec) {
+        assert rec != null;
+
+        final CachedScaled entry = scaledEntries.get(rec.key());
+        if (entry == null || entry.image != rec.image()) {
+            return; // @NOTE already dropped as a stale version
+        }
+        assert entry.refs > 0;
+        entry.refs -= 1;
+        evict();
+    }
+
+    private static ImageKeyRec keyOf(final File file) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (final IOException ex) {
+            path = file.getAbsolutePath(); // @NOTE still good enough to tell files apart
+        }
+        return new ImageKeyRec(path, file.length(), file.lastModified());
+    }
+
+    private static synchronized void onDecoded(final ImageKeyRec key, final CachedImage entry, final Image image) {
+        if (entries.get(key) != entry) {
+            return;
+        }
+        entry.bytes = 4L * Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null)); // @NOTE assume 32 bit pixels
+        usedBytes += entry.bytes;
+        evict();
+    }
+
+    private static synchronized void onScaled(final ScaledKeyRec key, final CachedScaled entry, final BufferedImage image) {
+        if (scaledEntries.get(key) != entry) {
+            return;
+        }
+        entry.bytes = 4L * image.getWidth() * image.getHeight(); // @NOTE assume 32 bit pixels
+        usedBytes += entry.bytes;
+        evict();
+    }
+
+    // @NOTE Once a file has changed on disk its old versions can never be asked for again. Versions still on a slide
+    // are dropped as soon as the last slide lets go of them.
+    private static void dropStaleVersions(final String canonicalPath) {
+        final Iterator<Map.Entry<ImageKeyRec, CachedImage>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<ImageKeyRec, CachedImage> e = it.next();
+            if (!e.getKey().canonicalPath().equals(canonicalPath)) {
+                continue;
+            }
+            if (e.getValue().refs == 0) {
+                usedBytes -= e.getValue().bytes;
+                it.remove();
+            } else {
+                e.getValue().stale = true;
+            }
+        }
+
+        final Iterator<Map.Entry<ScaledKeyRec, CachedScaled>> scaledIt = scaledEntries.entrySet().iterator();
+        while (scaledIt.hasNext()) {
+            final Map.Entry<ScaledKeyRec, CachedScaled> e = scaledIt.next();
+            if (e.getValue().refs == 0 && e.getKey().image().canonicalPath().equals(canonicalPath)) {
+                usedBytes -= e.getValue().bytes;
+                scaledIt.remove();
+            }
+        }
+    }
+
+    // @NOTE Scaled images go first; they are quick to make again from the decoded ones, decoding is not.
+    private static void evict() {
+        final Iterator<Map.Entry<ScaledKeyRec, CachedScaled>> scaledIt = scaledEntries.entrySet().iterator();
+        while (usedBytes > BUDGET_BYTES && scaledIt.hasNext()) {
+            final Map.Entry<ScaledKeyRec, CachedScaled> e = scaledIt.next();
+            if (e.getValue().refs > 0) {
+                continue; // @NOTE never drop an image a slide still shows
+            }
+            usedBytes -= e.getValue().bytes;
+            scaledIt.remove();
+        }
+
+        final Iterator<Map.Entry<ImageKeyRec, CachedImage>> it = entries.entrySet().iterator();
+        while (usedBytes > BUDGET_BYTES && it.hasNext()) {
+            final Map.Entry<ImageKeyRec, CachedImage> e = it.next();
+            if (e.getValue().refs > 0) {
+                continue; // @NOTE never drop an image a slide still shows, even if that means going over budget
+            }
+            Main.logger.log(Level.INFO, String.format("Evicting '%s' from the image cache", e.getKey().canonicalPath()));
+            usedBytes -= e.getValue().bytes;
+            it.remove();
+        }
+    }
+}
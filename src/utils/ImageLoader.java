@@ -0,0 +1,134 @@
+//
+// Decodes the images of a slideshow in the background.
+//
+// ImageIcon starts a toolkit loader thread for every single image and there is no telling when the
+// image is actually done, so a slide with lots of photos would show up half decoded. Instead every
+// image goes through a small fixed pool of workers and is handed out as a future, which lets the
+// display wait for a slide until all of its images are complete.
+//
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import javax.imageio.ImageIO;
+
+public final class ImageLoader {
+
+    private ImageLoader() {
+        assert false;
+    }
+
+    // @NOTE Decoding is cpu bound and every worker holds a whole decoded image in memory, so more workers than this
+    // only make things worse on the machines we present from.
+    private static final int WORKER_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final AtomicInteger workerId = new AtomicInteger(0);
+
+    private static final ExecutorService workers = Executors.newFixedThreadPool(WORKER_COUNT, (runnable) -> {
+        final Thread thread = new Thread(runnable, "image_loader_thread_" + workerId.getAndIncrement());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1); // @NOTE never get in the way of the main loop
+        return thread;
+    });
+
+    // @NOTE Completes with the decoded image or exceptionally if the file can not be decoded. Never blocks.
+    public static CompletableFuture<Image> load(final String file) {
+        assert file != null;
+
+        return CompletableFuture.supplyAsync(() -> {
+            final long begin = System.nanoTime() / 1000000;
+            try {
+                final Image image = decode(file);
+                final long delta = (System.nanoTime() / 1000000) - begin;
+                Main.logger.log(Level.INFO, String.format("Decoded '%s' in %s milliseconds", file, delta));
+                return image;
+            } catch (final IOException ex) {
+                Main.logger.log(Level.SEVERE, ex.getMessage(), ex);
+                throw new java.io.UncheckedIOException(ex);
+            }
+        }, workers);
+    }
+
+    // @NOTE scale() on the workers; scaling a photo of a few dozen megapixels takes well over a frame
+    public static CompletableFuture<BufferedImage> scaleLater(final BufferedImage image, final int width, final int height, final GraphicsConfiguration gfxConfig) {
+        assert image     != null;
+        assert gfxConfig != null;
+
+        return CompletableFuture.supplyAsync(() -> scale(image, width, height, gfxConfig), workers);
+    }
+
+    private static Image decode(final String file) throws IOException {
+        // @NOTE ImageIO only ever gives us the first frame of a .gif; ImageIcon keeps them animated. Its constructor
+        // waits until the image is complete, so this still finishes on our worker.
+        if (file.toLowerCase().endsWith(".gif")) {
+            final Image image = new javax.swing.ImageIcon(file).getImage();
+            if (image.getWidth(null) <= 0) {
+                throw new IOException(String.format("Failed to decode image '%s'", file));
+            }
+            return image;
+        }
+
+        final BufferedImage decoded = ImageIO.read(new File(file));
+        if (decoded == null) {
+            throw new IOException(String.format("There is no decoder for the image '%s'", file));
+        }
+        return toCompatibleImage(decoded);
+    }
+
+    // @NOTE Converts the image into the pixel layout of the screen so drawing it never has to convert it on the fly.
+    public static BufferedImage toCompatibleImage(final BufferedImage image) {
+        assert image != null;
+
+        if (GraphicsEnvironment.isHeadless()) {
+            return image;
+        }
+
+        final GraphicsConfiguration gfxConfig = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        if (image.getColorModel().equals(gfxConfig.getColorModel(image.getTransparency()))) {
+            return image;
+        }
+
+        final BufferedImage compatible = gfxConfig.createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        final Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    // @NOTE Scales the image to exactly width x height in the pixel layout of 'gfxConfig'. Shrinking goes in steps of at
+    // most half the size; a single bilinear step would only look at 4 source pixels per target pixel and alias badly
+    // when e.g. a 24 megapixel photo ends up a few hundred pixels wide.
+    public static BufferedImage scale(final BufferedImage image, final int width, final int height, final GraphicsConfiguration gfxConfig) {
+        assert image     != null;
+        assert gfxConfig != null;
+        assert width > 0 && height > 0;
+
+        BufferedImage current = image;
+        int currentWidth  = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth  = currentWidth  > width  ? Math.max(width,  currentWidth  / 2) : width;
+            currentHeight = currentHeight > height ? Math.max(height, currentHeight / 2) : height;
+
+            final BufferedImage next = gfxConfig.createCompatibleImage(currentWidth, currentHeight, image.getTransparency());
+            final Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+}
@@ -2,11 +2,13 @@
 // Simple file utilties
 //
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public final class SFile {
 
@@ -44,23 +46,59 @@ public final class SFile {
         }
     }
 
+    // @NOTE Reads the rest of the file straight into an array of the right size, so there is exactly one copy (kernel to
+    // us) instead of going through a temporary buffer and a ByteArrayOutputStream.
     public static FResult<byte[]> read(final FileInputStream handle) {
         assert handle != null;
 
-        final ByteArrayOutputStream memory = new ByteArrayOutputStream();
         try {
+            final FileChannel channel = handle.getChannel();
+            final long size = channel.size() - channel.position();
+            if (size > Integer.MAX_VALUE - 8) {
+                return new FResult<byte[]>(null, new IOException("File is too large to be read into memory"));
+            }
+
+            byte[] data = new byte[(int) size];
+            int length  = 0;
             while (true) {
-                final byte[] buffer = new byte[4096]; // likely a page
-                final int readBytes = handle.read(buffer);
+                if (length == data.length) {
+                    // @NOTE either we are done or the file has grown since we asked for its size (e.g. an editor is still writing)
+                    final int next = handle.read();
+                    if (next < 0) {
+                        break;
+                    }
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, 4096));
+                    data[length++] = (byte) next;
+                    continue;
+                }
+
+                final int readBytes = handle.read(data, length, data.length - length);
                 if (readBytes < 0) {
                     break;
                 }
-                memory.write(buffer, 0, readBytes);
+                length += readBytes;
             }
+            return new FResult<byte[]>(length == data.length ? data : Arrays.copyOf(data, length), null);
         } catch (final IOException ex) {
             return new FResult<byte[]>(null, ex);
         }
-        return new FResult<byte[]>(memory.toByteArray(), null);
+    }
+
+    // @NOTE Always decodes as UTF-8 regardless of the platform charset. A leading byte order mark is skipped.
+    public static FResult<String> readUtf8(final FileInputStream handle) {
+        assert handle != null;
+
+        final FResult<byte[]> readResult = read(handle);
+        if (readResult.failed) {
+            return new FResult<String>(null, readResult.error);
+        }
+
+        final byte[] data = readResult.data;
+        int offset = 0;
+        if (data.length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF) {
+            offset = 3;
+        }
+        return new FResult<String>(new String(data, offset, data.length - offset, StandardCharsets.UTF_8), null);
     }
 
     public static FResult<Void> write(final FileOutputStream handle, final byte[] data) {